@@ -1,6 +1,7 @@
 package org.example.tennistournament.auth;
 
 import jakarta.servlet.http.HttpServletRequest;
+import org.example.tennistournament.builder.TokenBuilder;
 import org.example.tennistournament.model.Token;
 import org.example.tennistournament.model.TokenType;
 import org.example.tennistournament.model.User;
@@ -8,36 +9,54 @@ import org.example.tennistournament.model.Role;
 import org.example.tennistournament.repository.TokenRepository;
 import org.example.tennistournament.repository.UserRepository;
 import org.example.tennistournament.security.JwtService;
+import org.example.tennistournament.security.LogoutService;
+import org.example.tennistournament.security.ParsedToken;
+import org.example.tennistournament.security.PasswordHashingExecutor;
+import org.example.tennistournament.security.RevokedTokenIndex;
+import org.example.tennistournament.security.TokenDigest;
+import org.example.tennistournament.security.UserAuthStateCache;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 @Service
 public class AuthenticationService {
 
     private final UserRepository userRepository;
     private final TokenRepository tokenRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashingExecutor;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final UserAuthStateCache userAuthStateCache;
+    private final LogoutService logoutService;
+    private final RevokedTokenIndex revokedTokenIndex;
 
     public AuthenticationService(UserRepository userRepository,
                                  TokenRepository tokenRepository,
-                                 PasswordEncoder passwordEncoder,
+                                 PasswordHashingExecutor passwordHashingExecutor,
                                  JwtService jwtService,
-                                 AuthenticationManager authenticationManager) {
+                                 AuthenticationManager authenticationManager,
+                                 UserAuthStateCache userAuthStateCache,
+                                 LogoutService logoutService,
+                                 RevokedTokenIndex revokedTokenIndex) {
         this.userRepository = userRepository;
         this.tokenRepository = tokenRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingExecutor = passwordHashingExecutor;
         this.jwtService = jwtService;
         this.authenticationManager = authenticationManager;
+        this.userAuthStateCache = userAuthStateCache;
+        this.logoutService = logoutService;
+        this.revokedTokenIndex = revokedTokenIndex;
     }
 
     public Map<String, String> register(String username, String email, String password, Role role) {
@@ -57,18 +76,20 @@ public class AuthenticationService {
         User user = new User();
         user.setUsername(username);
         user.setEmail(email);
-        user.setPassword(passwordEncoder.encode(password));
+        user.setPassword(passwordHashingExecutor.encode(password));
         user.setRole(role);
         user = userRepository.save(user);
 
-        revokeAllUserTokens(user);
+        // a brand-new user has no tokens to revoke
         return generateAndSaveTokens(user);
     }
 
     public Map<String, String> authenticate(String username, String password) {
-        authenticationManager.authenticate(
+        // BCrypt verification (and a transparent re-hash of outdated hashes) runs on the
+        // bounded hashing pool, not on the request thread pool
+        passwordHashingExecutor.run(() -> authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(username, password)
-        );
+        ));
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
@@ -82,29 +103,92 @@ public class AuthenticationService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Refresh token missing or malformed");
         }
         String oldRefresh = header.substring(7);
-        String username = jwtService.extractUsername(oldRefresh);
+        ParsedToken parsedRefresh = jwtService.parseToken(oldRefresh);
+        String username = parsedRefresh.getSubject();
         if (username == null) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid refresh token: missing subject");
         }
+        if (!parsedRefresh.isRefreshToken() && parsedRefresh.getFamilyId() != null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Not a refresh token");
+        }
 
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
-        if (!jwtService.isTokenValid(oldRefresh, user)) {
+        if (!jwtService.isTokenValid(parsedRefresh, user) || isOlderGeneration(parsedRefresh, user)) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid or expired refresh token");
         }
 
-        revokeAllUserTokens(user);
-        return generateAndSaveTokens(user);
+        // tokens minted before families existed start a family on their first rotation
+        String familyId = parsedRefresh.getFamilyId() != null
+                ? parsedRefresh.getFamilyId()
+                : UUID.randomUUID().toString();
+        String access  = jwtService.generateToken(user, familyId);
+        String refresh = jwtService.generateRefreshToken(user, familyId);
+        ParsedToken parsedNew = jwtService.parseToken(refresh);
+
+        // the session's refresh row is rotated with a single conditional UPDATE
+        int rotated = tokenRepository.rotate(
+                TokenDigest.sha256Hex(oldRefresh), TokenType.REFRESH, familyId,
+                TokenDigest.sha256Hex(refresh), parsedNew.getTokenId(), toLocalDateTime(parsedNew));
+        if (rotated == 0) {
+            if (parsedRefresh.getFamilyId() != null) {
+                // a correctly signed, unexpired token that is no longer current was rotated out
+                // before: somebody replayed it, so the whole session is burnt
+                logoutService.revokeFamily(familyId);
+            }
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid or expired refresh token");
+        }
+        if (!jwtService.isStateless()) {
+            rotateAccessToken(user, access, familyId);
+        }
+        return tokenResponse(user, access, refresh);
+    }
+
+    /**
+     * Stateful mode keeps one access row per session, rotated in place like the refresh row.
+     * The access token it held is revoked in the in-process index, since the row no longer
+     * names it; sessions without a live access row get one.
+     */
+    private void rotateAccessToken(User user, String access, String familyId) {
+        List<Token> rows = tokenRepository.findAllByFamilyIdAndRevokedFalse(familyId).stream()
+                .filter(t -> t.getTokenType() == TokenType.ACCESS)
+                .toList();
+        if (rows.isEmpty()) {
+            saveToken(user, access, TokenType.ACCESS, familyId);
+            return;
+        }
+        Token row = rows.get(0);
+        String replacedId = row.getTokenId();
+        LocalDateTime replacedExpiry = row.getExpiresAt();
+        ParsedToken parsed = jwtService.parseToken(access);
+        row.setTokenHash(TokenDigest.sha256Hex(access));
+        row.setTokenId(parsed.getTokenId());
+        row.setExpiresAt(toLocalDateTime(parsed));
+        tokenRepository.save(row);
+        if (replacedId != null && replacedExpiry != null) {
+            revokedTokenIndex.revoke(replacedId, Date.from(replacedExpiry.atZone(ZoneId.systemDefault()).toInstant()));
+        }
+        if (rows.size() > 1) {
+            // rows written per refresh before sessions kept a single one
+            logoutService.revokeTokens(rows.subList(1, rows.size()));
+        }
     }
 
-    // --- helper to mint, persist, and return tokens as a map ---
+    // --- helper to start a session: mint, persist, and return tokens as a map ---
     private Map<String, String> generateAndSaveTokens(User user) {
-        String access  = jwtService.generateToken(user);
-        String refresh = jwtService.generateRefreshToken(user);
+        String familyId = UUID.randomUUID().toString();
+        String access  = jwtService.generateToken(user, familyId);
+        String refresh = jwtService.generateRefreshToken(user, familyId);
 
-        saveToken(user, access,  TokenType.ACCESS);
-        saveToken(user, refresh, TokenType.REFRESH);
+        if (!jwtService.isStateless()) {
+            // stateless mode keeps rows for refresh tokens only; access tokens stand on their signature
+            saveToken(user, access, TokenType.ACCESS, familyId);
+        }
+        saveToken(user, refresh, TokenType.REFRESH, familyId);
+        return tokenResponse(user, access, refresh);
+    }
 
+    private Map<String, String> tokenResponse(User user, String access, String refresh) {
         Map<String, String> response = new HashMap<>();
         response.put("accessToken",  access);
         response.put("refreshToken", refresh);
@@ -116,22 +200,47 @@ public class AuthenticationService {
         return response;
     }
 
-    private void saveToken(User user, String jwt, TokenType type) {
-        Token t = new Token();
-        t.setUser(user);
-        t.setToken(jwt);
-        t.setTokenType(type);
-        t.setExpired(false);
-        t.setRevoked(false);
+    private void saveToken(User user, String jwt, TokenType type, String familyId) {
+        ParsedToken parsed = jwtService.parseToken(jwt);
+        Token t = TokenBuilder.builder()
+                .user(user)
+                .tokenHash(TokenDigest.sha256Hex(jwt))
+                .tokenId(parsed.getTokenId())
+                .expiresAt(toLocalDateTime(parsed))
+                .familyId(familyId)
+                .tokenType(type)
+                .expired(false)
+                .revoked(false)
+                .build();
         tokenRepository.save(t);
     }
 
+    private static LocalDateTime toLocalDateTime(ParsedToken token) {
+        return LocalDateTime.ofInstant(token.getExpiration().toInstant(), ZoneId.systemDefault());
+    }
+
+    /**
+     * Log the user out of every session, e.g. when an admin suspects a compromised account.
+     */
+    public void logoutEverywhere(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        revokeAllUserTokens(user);
+    }
+
+    /**
+     * Revokes every token of the user with a single increment of its token generation:
+     * tokens carry the generation they were minted in and older ones are rejected.
+     */
     private void revokeAllUserTokens(User user) {
-        List<Token> tokens = tokenRepository.findAllValidTokenByUser(user.getId());
-        tokens.forEach(t -> {
-            t.setExpired(true);
-            t.setRevoked(true);
-        });
-        tokenRepository.saveAll(tokens);
+        userRepository.incrementTokenGeneration(user.getId());
+        user.setTokenGeneration(userRepository.findTokenGenerationById(user.getId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found")));
+        userAuthStateCache.updateAfterCommit(user);
+    }
+
+    private boolean isOlderGeneration(ParsedToken token, User user) {
+        Long generation = token.getTokenGeneration();
+        return generation != null && generation < user.getTokenGeneration();
     }
 }
@@ -4,10 +4,15 @@ import org.example.tennistournament.model.Token;
 import org.example.tennistournament.model.TokenType;
 import org.example.tennistournament.model.User;
 
+import java.time.LocalDateTime;
+
 public class TokenBuilder {
 
     private Long id;
-    private String token;
+    private String tokenHash;
+    private String tokenId;
+    private LocalDateTime expiresAt;
+    private String familyId;
     private TokenType tokenType;
     private boolean revoked;
     private boolean expired;
@@ -25,8 +30,23 @@ public class TokenBuilder {
         return this;
     }
 
-    public TokenBuilder token(String token) {
-        this.token = token;
+    public TokenBuilder tokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
+        return this;
+    }
+
+    public TokenBuilder tokenId(String tokenId) {
+        this.tokenId = tokenId;
+        return this;
+    }
+
+    public TokenBuilder expiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+        return this;
+    }
+
+    public TokenBuilder familyId(String familyId) {
+        this.familyId = familyId;
         return this;
     }
 
@@ -53,7 +73,10 @@ public class TokenBuilder {
     public Token build() {
         Token tokenObj = new Token();
         tokenObj.setId(this.id);
-        tokenObj.setToken(this.token);
+        tokenObj.setTokenHash(this.tokenHash);
+        tokenObj.setTokenId(this.tokenId);
+        tokenObj.setExpiresAt(this.expiresAt);
+        tokenObj.setFamilyId(this.familyId);
         tokenObj.setTokenType(this.tokenType);
         tokenObj.setRevoked(this.revoked);
         tokenObj.setExpired(this.expired);
@@ -0,0 +1,69 @@
+package org.example.tennistournament.config;
+
+import jakarta.annotation.PostConstruct;
+import org.example.tennistournament.model.MatchScore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Backfills the packed score of matches scored before it existed, in id-ordered batches.
+ * Scores are read with the configured {@code application.scoring.best-of}, the rules new scores
+ * are checked against, so a completed match gets its winner; text that breaks those rules is
+ * left as it is (without a packed score) and reported in the log.
+ */
+@Component
+@DependsOn("entityManagerFactory") // score_data must already have been added by the schema update
+public class ScoreStorageMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(ScoreStorageMigration.class);
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int bestOf;
+
+    public ScoreStorageMigration(JdbcTemplate jdbcTemplate,
+                                 @Value("${application.scoring.best-of:3}") int bestOf) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.bestOf = bestOf;
+    }
+
+    @PostConstruct
+    void migrate() {
+        long lastId = 0;
+        int migrated = 0;
+        int invalid = 0;
+        while (true) {
+            List<Object[]> rows = jdbcTemplate.query(
+                    "SELECT id, score FROM tennis_match WHERE id > ? AND score_data IS NULL "
+                            + "AND score IS NOT NULL AND score <> '' ORDER BY id LIMIT " + BATCH_SIZE,
+                    (rs, i) -> new Object[] { rs.getLong(1), rs.getString(2) },
+                    lastId);
+            if (rows.isEmpty()) {
+                break;
+            }
+            List<Object[]> updates = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                try {
+                    MatchScore score = MatchScore.parse((String) row[1], bestOf);
+                    updates.add(new Object[] { score.toBytes(), score.toString(), row[0] });
+                } catch (IllegalArgumentException ex) {
+                    invalid++;
+                }
+            }
+            jdbcTemplate.batchUpdate("UPDATE tennis_match SET score_data = ?, score = ? WHERE id = ?", updates);
+            migrated += updates.size();
+            lastId = (Long) rows.get(rows.size() - 1)[0];
+        }
+        if (migrated > 0 || invalid > 0) {
+            log.info("Packed {} match scores as best of {}; {} scores break the rules and were left as text",
+                    migrated, bestOf, invalid);
+        }
+    }
+}
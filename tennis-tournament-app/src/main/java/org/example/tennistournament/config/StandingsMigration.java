@@ -0,0 +1,109 @@
+package org.example.tennistournament.config;
+
+import jakarta.annotation.PostConstruct;
+import org.example.tennistournament.model.MatchScore;
+import org.example.tennistournament.model.PlayerStanding;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the player standings once from the matches scored before they were kept, reading the
+ * packed scores in id-ordered batches. Runs only while {@code player_standing} is empty; from
+ * then on every score change keeps the rows current. The build is one transaction, so a failed
+ * run leaves the table empty and the next start tries again.
+ */
+@Component
+@DependsOn({"entityManagerFactory", "scoreStorageMigration"}) // needs the table and the packed scores
+public class StandingsMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(StandingsMigration.class);
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public StandingsMigration(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    void migrate() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> build());
+        } catch (DuplicateKeyException ex) {
+            // another instance built them at the same time
+            log.info("Player standings were built concurrently, keeping those");
+        }
+    }
+
+    private void build() {
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM player_standing", Long.class);
+        if (existing != null && existing > 0) {
+            return;
+        }
+        // "tournamentId:playerId" -> counters
+        Map<String, long[]> totals = new LinkedHashMap<>();
+        long lastId = 0;
+        int matches = 0;
+        while (true) {
+            List<Object[]> rows = jdbcTemplate.query(
+                    "SELECT id, tournament_id, player1_id, player2_id, score_data FROM tennis_match "
+                            + "WHERE id > ? AND score_data IS NOT NULL AND tournament_id IS NOT NULL "
+                            + "ORDER BY id LIMIT " + BATCH_SIZE,
+                    (rs, i) -> new Object[] { rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getBytes(5) },
+                    lastId);
+            if (rows.isEmpty()) {
+                break;
+            }
+            for (Object[] row : rows) {
+                MatchScore score = MatchScore.fromBytes((byte[]) row[4]);
+                if (!score.isEmpty()) {
+                    addTo(totals, row[1] + ":" + row[2], PlayerStanding.totalsOf(score, 1));
+                    addTo(totals, row[1] + ":" + row[3], PlayerStanding.totalsOf(score, 2));
+                    matches++;
+                }
+            }
+            lastId = (Long) rows.get(rows.size() - 1)[0];
+        }
+        if (totals.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> inserts = new ArrayList<>(totals.size());
+        totals.forEach((key, counters) -> {
+            String[] ids = key.split(":");
+            Object[] args = new Object[PlayerStanding.COUNTERS + 2];
+            for (int i = 0; i < PlayerStanding.COUNTERS; i++) {
+                args[i] = counters[i];
+            }
+            args[PlayerStanding.COUNTERS] = Long.parseLong(ids[0]);
+            args[PlayerStanding.COUNTERS + 1] = Long.parseLong(ids[1]);
+            inserts.add(args);
+        });
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO player_standing (version, matches_played, matches_won, sets_won, sets_lost, "
+                        + "games_won, games_lost, tiebreaks_won, tiebreaks_lost, tournament_id, player_id) "
+                        + "VALUES (0, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                inserts);
+        log.info("Built {} player standings from {} scored matches", inserts.size(), matches);
+    }
+
+    private static void addTo(Map<String, long[]> totals, String key, long[] counters) {
+        long[] sum = totals.computeIfAbsent(key, k -> new long[PlayerStanding.COUNTERS]);
+        for (int i = 0; i < counters.length; i++) {
+            sum[i] += counters[i];
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.tennistournament.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import jakarta.annotation.PostConstruct;
+import org.example.tennistournament.security.JwtService;
+import org.example.tennistournament.security.TokenDigest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One-off migration of the token table from raw JWT strings to SHA-256 digests.
+ * Rows still holding a raw token get their token_hash (and the jti/expires_at columns added
+ * for the revocation index) backfilled in id-ordered batches, then the raw column is dropped.
+ * Does nothing once the legacy column is gone, e.g. on a freshly created schema.
+ */
+@Component("tokenStorageMigration")
+@DependsOn("entityManagerFactory") // token_hash must already have been added by the schema update
+public class TokenStorageMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenStorageMigration.class);
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JwtService jwtService;
+
+    public TokenStorageMigration(JdbcTemplate jdbcTemplate, JwtService jwtService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jwtService = jwtService;
+    }
+
+    @PostConstruct
+    void migrate() {
+        if (!hasLegacyTokenColumn()) {
+            return;
+        }
+        long lastId = 0;
+        int migrated = 0;
+        while (true) {
+            List<Object[]> rows = jdbcTemplate.query(
+                    "SELECT id, token FROM token WHERE id > ? AND token IS NOT NULL AND token_hash IS NULL "
+                            + "ORDER BY id LIMIT " + BATCH_SIZE,
+                    (rs, i) -> new Object[] { rs.getLong(1), rs.getString(2) },
+                    lastId);
+            if (rows.isEmpty()) {
+                break;
+            }
+            List<Object[]> updates = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                String jwt = (String) row[1];
+                Claims claims = readClaims(jwt);
+                updates.add(new Object[] {
+                        TokenDigest.sha256Hex(jwt),
+                        claims != null ? claims.getId() : null,
+                        claims != null && claims.getExpiration() != null
+                                ? new Timestamp(claims.getExpiration().getTime()) : null,
+                        row[0] });
+            }
+            jdbcTemplate.batchUpdate(
+                    "UPDATE token SET token_hash = ?, jti = COALESCE(jti, ?), expires_at = COALESCE(expires_at, ?) "
+                            + "WHERE id = ?",
+                    updates);
+            migrated += rows.size();
+            lastId = (Long) rows.get(rows.size() - 1)[0];
+        }
+        jdbcTemplate.execute("ALTER TABLE token DROP COLUMN token");
+        log.info("Migrated {} stored tokens to SHA-256 digests and dropped the raw token column", migrated);
+    }
+
+    private boolean hasLegacyTokenColumn() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((Connection con) -> {
+            DatabaseMetaData meta = con.getMetaData();
+            for (String table : new String[] { "token", "TOKEN" }) {
+                for (String column : new String[] { "token", "TOKEN" }) {
+                    try (ResultSet rs = meta.getColumns(con.getCatalog(), null, table, column)) {
+                        if (rs.next()) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }));
+    }
+
+    // claims of a stored token, even if it has expired; null if it cannot be verified
+    private Claims readClaims(String jwt) {
+        try {
+            return jwtService.parseToken(jwt).getClaims();
+        } catch (ExpiredJwtException ex) {
+            return ex.getClaims();
+        } catch (JwtException | IllegalArgumentException ex) {
+            return null;
+        }
+    }
+}
@@ -1,23 +1,45 @@
 package org.example.tennistournament.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.example.tennistournament.auth.AuthenticationService;
 import org.example.tennistournament.dto.RegistrationRequestDto;
+import org.example.tennistournament.dto.ScoreHistoryEntryDto;
 import org.example.tennistournament.dto.UserDto;
+import org.example.tennistournament.dto.UserImportResultDto;
+import org.example.tennistournament.dto.UserImportRowDto;
 import org.example.tennistournament.export.CSVExportStrategy;
 import org.example.tennistournament.export.ExportService;
 import org.example.tennistournament.export.TXTExportStrategy;
+import org.example.tennistournament.journal.ScoreJournal;
 import org.example.tennistournament.model.RegistrationRequest;
 import org.example.tennistournament.model.TennisMatch;
 import org.example.tennistournament.service.EmailService;
 import org.example.tennistournament.service.RegistrationRequestService;
 import org.example.tennistournament.service.TennisMatchService;
 import org.example.tennistournament.service.TournamentService;
+import org.example.tennistournament.service.UserImportService;
 import org.example.tennistournament.service.UserService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -33,19 +55,31 @@ public class AdminController {
     private final RegistrationRequestService reqService;
     private final TournamentService tournamentService;
     private final EmailService emailService;
+    private final AuthenticationService authService;
+    private final UserImportService userImportService;
+    private final ScoreJournal scoreJournal;
+    private final ObjectMapper objectMapper;
 
     public AdminController(UserService userService,
                            TennisMatchService matchService,
                            ExportService exportService,
                            RegistrationRequestService reqService,
                            TournamentService tournamentService,
-                           EmailService emailService) {
+                           EmailService emailService,
+                           AuthenticationService authService,
+                           UserImportService userImportService,
+                           ScoreJournal scoreJournal,
+                           ObjectMapper objectMapper) {
         this.userService = userService;
         this.matchService = matchService;
         this.exportService = exportService;
         this.reqService = reqService;
         this.tournamentService = tournamentService;
         this.emailService = emailService;
+        this.authService = authService;
+        this.userImportService = userImportService;
+        this.scoreJournal = scoreJournal;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping("/users")
@@ -63,6 +97,27 @@ public class AdminController {
         return ResponseEntity.ok("User deleted successfully");
     }
 
+    @PostMapping(value = "/users/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Bulk import users (JSON)", description = "Creates many users at once; returns per-row errors")
+    public UserImportResultDto importUsersJson(@RequestBody List<UserImportRowDto> rows) {
+        return userImportService.importUsers(rows);
+    }
+
+    @PostMapping(value = "/users/import", consumes = "text/csv")
+    @Operation(summary = "Bulk import users (CSV)", description = "CSV lines of username,email,password[,role]; returns per-row errors")
+    public UserImportResultDto importUsersCsv(HttpServletRequest request) throws IOException {
+        var rows = userImportService.parseCsv(
+                new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8));
+        return userImportService.importUsers(rows);
+    }
+
+    @PostMapping("/users/{id}/logout-everywhere")
+    @Operation(summary = "Log a user out everywhere", description = "Revokes every access and refresh token of the user")
+    public ResponseEntity<String> logoutEverywhere(@PathVariable Long id) {
+        authService.logoutEverywhere(id);
+        return ResponseEntity.ok("User logged out of all sessions");
+    }
+
     @GetMapping("/export")
     @Operation(summary = "Export match data", description = "Exports matches for a given tournament in CSV or TXT")
     public ResponseEntity<String> exportMatches(
@@ -89,6 +144,44 @@ public class AdminController {
                 .body(content);
     }
 
+    @GetMapping(value = "/tournaments/{tournamentId}/score-history", produces = "application/x-ndjson")
+    @Operation(summary = "Stream score history",
+            description = "Every committed score change of the tournament's matches, oldest first, one JSON object "
+                    + "per line. Read from the score journal files, not from the database")
+    public StreamingResponseBody scoreHistory(
+            @Parameter(description = "Tournament ID", required = true) @PathVariable Long tournamentId,
+            @Parameter(description = "Only changes from this time on")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            @RequestParam(required = false) LocalDateTime from,
+            @Parameter(description = "Only changes before this time")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            @RequestParam(required = false) LocalDateTime to
+    ) {
+        if (!scoreJournal.isEnabled()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Score journal is disabled!");
+        }
+        return out -> {
+            // changes committed before this request are still on their way to the journal
+            scoreJournal.awaitWritten(Duration.ofSeconds(1));
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            scoreJournal.reader().forEach(
+                    from != null ? from.toLocalDate() : null,
+                    to != null ? to.toLocalDate() : null,
+                    record -> {
+                        if (record.tournamentId() != tournamentId) {
+                            return;
+                        }
+                        LocalDateTime at = record.getRecordedAt();
+                        if ((from != null && at.isBefore(from)) || (to != null && !at.isBefore(to))) {
+                            return;
+                        }
+                        writer.write(objectMapper.writeValueAsString(new ScoreHistoryEntryDto(record)));
+                        writer.write('\n');
+                    });
+            writer.flush();
+        };
+    }
+
     @GetMapping("/registration-requests")
     @Operation(summary = "List registration requests", description = "Returns all registration requests, optionally filtered by status and/or tournament")
     public List<RegistrationRequestDto> listRequests(
@@ -115,8 +208,7 @@ public class AdminController {
     public RegistrationRequestDto approveRequest(@PathVariable Long id) {
         var req = reqService.approve(id);
         var tour = req.getTournament();
-        tour.getPlayers().add(req.getPlayer());
-        tournamentService.save(tour);
+        tournamentService.addPlayer(tour.getId(), req.getPlayer().getId());
         emailService.sendRegistrationOutcome(req.getPlayer(), tour, true);
         return new RegistrationRequestDto(req);
     }
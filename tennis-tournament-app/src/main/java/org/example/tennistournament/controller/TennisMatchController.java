@@ -4,14 +4,32 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.example.tennistournament.dto.FreeSlotDto;
+import org.example.tennistournament.dto.MatchBatchRequestDto;
+import org.example.tennistournament.dto.MatchBatchResultDto;
 import org.example.tennistournament.dto.MatchDto;
+import org.example.tennistournament.dto.PointScoreDto;
+import org.example.tennistournament.dto.RefereeRebalanceResultDto;
+import org.example.tennistournament.dto.RescheduleRequestDto;
+import org.example.tennistournament.dto.RescheduleResultDto;
+import org.example.tennistournament.dto.UserDto;
 import org.example.tennistournament.model.TennisMatch;
+import org.example.tennistournament.service.FreeSlotService;
+import org.example.tennistournament.service.LiveScoreService;
+import org.example.tennistournament.service.PointScoringService;
+import org.example.tennistournament.service.RefereeAssignmentService;
+import org.example.tennistournament.service.RescheduleService;
 import org.example.tennistournament.service.TennisMatchService;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -21,9 +39,24 @@ import java.util.stream.Collectors;
 public class TennisMatchController {
 
     private final TennisMatchService tennisMatchService;
+    private final RefereeAssignmentService refereeAssignmentService;
+    private final FreeSlotService freeSlotService;
+    private final RescheduleService rescheduleService;
+    private final LiveScoreService liveScoreService;
+    private final PointScoringService pointScoringService;
 
-    public TennisMatchController(TennisMatchService tennisMatchService) {
+    public TennisMatchController(TennisMatchService tennisMatchService,
+                                 RefereeAssignmentService refereeAssignmentService,
+                                 FreeSlotService freeSlotService,
+                                 RescheduleService rescheduleService,
+                                 LiveScoreService liveScoreService,
+                                 PointScoringService pointScoringService) {
         this.tennisMatchService = tennisMatchService;
+        this.refereeAssignmentService = refereeAssignmentService;
+        this.freeSlotService = freeSlotService;
+        this.rescheduleService = rescheduleService;
+        this.liveScoreService = liveScoreService;
+        this.pointScoringService = pointScoringService;
     }
 
     @PostMapping("/create")
@@ -34,7 +67,10 @@ public class TennisMatchController {
             @Parameter(description = "Tournament ID", required = true) @RequestParam Long tournamentId,
             @Parameter(description = "Player1 ID",     required = true) @RequestParam Long player1Id,
             @Parameter(description = "Player2 ID",     required = true) @RequestParam Long player2Id,
-            @Parameter(description = "Referee ID",     required = true) @RequestParam Long refereeId,
+            @Parameter(description = "Referee ID (omit to assign the least loaded free referee)")
+            @RequestParam(required = false) Long refereeId,
+            @Parameter(description = "Court ID (omit to book the first free court, if the tournament has courts)")
+            @RequestParam(required = false) Long courtId,
 
             @Parameter(description = "Start time (ISO-8601)", required = true)
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
@@ -48,12 +84,115 @@ public class TennisMatchController {
             @RequestParam Long currentUserId
     ) {
         TennisMatch match = tennisMatchService.createMatch(
-                tournamentId, player1Id, player2Id, refereeId,
+                tournamentId, player1Id, player2Id, refereeId, courtId,
                 startTime, endTime, currentUserId
         );
         return new MatchDto(match);
     }
 
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Create matches in batch",
+            description = "Creates a whole round of matches in one transaction. Invalid items are reported per item; "
+                    + "if the batch is atomic, any invalid item rejects the whole batch")
+    @ApiResponse(responseCode = "200", description = "Valid matches created, invalid items reported")
+    @ApiResponse(responseCode = "400", description = "Atomic batch rejected, nothing created")
+    public ResponseEntity<MatchBatchResultDto> createMatches(
+            @RequestBody MatchBatchRequestDto request,
+            @Parameter(description = "ID of the current user (must be ADMIN)", required = true)
+            @RequestParam Long currentUserId
+    ) {
+        MatchBatchResultDto result = tennisMatchService.createMatches(request, currentUserId);
+        if (request.atomic && !result.errors.isEmpty()) {
+            return ResponseEntity.badRequest().body(result);
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/referee-suggestion")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Suggest referee", description = "Returns the least loaded referee of the tournament that is free for the slot")
+    @ApiResponse(responseCode = "200", description = "Referee suggested")
+    public UserDto suggestReferee(
+            @Parameter(description = "Tournament ID", required = true) @RequestParam Long tournamentId,
+
+            @Parameter(description = "Start time (ISO-8601)", required = true)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            @RequestParam LocalDateTime startTime,
+
+            @Parameter(description = "End time (ISO-8601)", required = true)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            @RequestParam LocalDateTime endTime
+    ) {
+        return new UserDto(refereeAssignmentService.suggestReferee(tournamentId, startTime, endTime));
+    }
+
+    @GetMapping("/free-slots")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Find free slots",
+            description = "Returns the earliest slots within the tournament dates where all given players (and the referee) are free")
+    @ApiResponse(responseCode = "200", description = "Free slots found (possibly none)")
+    public List<FreeSlotDto> findFreeSlots(
+            @Parameter(description = "Tournament ID", required = true) @RequestParam Long tournamentId,
+            @Parameter(description = "Player IDs", required = true) @RequestParam List<Long> playerIds,
+            @Parameter(description = "Referee ID") @RequestParam(required = false) Long refereeId,
+            @Parameter(description = "Match duration in minutes", required = true) @RequestParam int durationMinutes,
+
+            @Parameter(description = "Window start (ISO-8601, defaults to now)")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            @RequestParam(required = false) LocalDateTime from,
+
+            @Parameter(description = "Window end (ISO-8601, defaults to the tournament end)")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            @RequestParam(required = false) LocalDateTime to,
+
+            @Parameter(description = "Number of slots to return") @RequestParam(defaultValue = "5") int count,
+            @Parameter(description = "Minutes between candidate starts") @RequestParam(defaultValue = "30") int stepMinutes,
+
+            @Parameter(description = "Daily start time (e.g. 09:00)")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.TIME)
+            @RequestParam(required = false) LocalTime dayStart,
+
+            @Parameter(description = "Daily end time (e.g. 20:00)")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.TIME)
+            @RequestParam(required = false) LocalTime dayEnd
+    ) {
+        return freeSlotService.findFreeSlots(tournamentId, playerIds, refereeId, durationMinutes,
+                from, to, count, stepMinutes, dayStart, dayEnd);
+    }
+
+    @PostMapping("/tournament/{tournamentId}/rebalance-referees")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Rebalance referees",
+            description = "Reassigns the referees of all upcoming, unscored matches of the tournament, spreading the load evenly")
+    @ApiResponse(responseCode = "200", description = "Referees rebalanced")
+    @ApiResponse(responseCode = "409", description = "Some match found no free referee, nothing changed")
+    public RefereeRebalanceResultDto rebalanceReferees(
+            @Parameter(description = "Tournament ID", required = true) @PathVariable Long tournamentId
+    ) {
+        return refereeAssignmentService.rebalanceTournament(tournamentId);
+    }
+
+    @PostMapping("/tournament/{tournamentId}/reschedule")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Reschedule matches",
+            description = "Shifts the selected matches (by id, or all of a day from a given time) by a number of minutes "
+                    + "or into a new window, keeping their gaps. Matches that cannot move are reported; "
+                    + "if the request is atomic, none are moved then")
+    @ApiResponse(responseCode = "200", description = "Movable matches moved, the others reported")
+    @ApiResponse(responseCode = "400", description = "Atomic request rejected, nothing moved")
+    @ApiResponse(responseCode = "409", description = "Concurrent update, nothing moved")
+    public ResponseEntity<RescheduleResultDto> rescheduleMatches(
+            @Parameter(description = "Tournament ID", required = true) @PathVariable Long tournamentId,
+            @RequestBody RescheduleRequestDto request
+    ) {
+        RescheduleResultDto result = rescheduleService.reschedule(tournamentId, request);
+        if (request.atomic && !result.notMoved.isEmpty()) {
+            return ResponseEntity.badRequest().body(result);
+        }
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/tournament/{tournamentId}")
     @PreAuthorize("@tennisMatchService.isParticipantOrAdmin(#tournamentId, principal.id)")
     @Operation(summary = "Get matches by tournament", description = "Retrieves all matches for a tournament")
@@ -94,4 +233,54 @@ public class TennisMatchController {
         TennisMatch updated = tennisMatchService.updateMatchScore(matchId, newScore, currentUserId);
         return new MatchDto(updated);
     }
+
+    @PostMapping("/{matchId}/points")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('REFEREE') and #currentUserId == principal.id)")
+    @Operation(summary = "Record a point",
+            description = "Point-by-point scoring: the assigned referee (during the match) or ADMIN records who won "
+                    + "the point. The match score is stored when a set or the match is completed")
+    @ApiResponse(responseCode = "200", description = "Point recorded")
+    @ApiResponse(responseCode = "409", description = "The score of the match was entered as a whole")
+    public PointScoreDto recordPoint(
+            @Parameter(description = "Match ID", required = true) @PathVariable Long matchId,
+            @Parameter(description = "Player who won the point (1 or 2)", required = true)
+            @RequestParam int player,
+            @Parameter(description = "ID of the current user", required = true)
+            @RequestParam Long currentUserId,
+            Authentication authentication
+    ) {
+        return pointScoringService.recordPoint(matchId, player, currentUserId, isAdmin(authentication));
+    }
+
+    @PostMapping("/{matchId}/points/undo")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('REFEREE') and #currentUserId == principal.id)")
+    @Operation(summary = "Undo the last point", description = "Takes back the last recorded point of the match")
+    @ApiResponse(responseCode = "200", description = "Point taken back")
+    @ApiResponse(responseCode = "400", description = "Nothing to undo")
+    public PointScoreDto undoPoint(
+            @Parameter(description = "Match ID", required = true) @PathVariable Long matchId,
+            @Parameter(description = "ID of the current user", required = true)
+            @RequestParam Long currentUserId,
+            Authentication authentication
+    ) {
+        return pointScoringService.undoPoint(matchId, currentUserId, isAdmin(authentication));
+    }
+
+    private static boolean isAdmin(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+    }
+
+    @GetMapping(value = "/{matchId}/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Live score of a match",
+            description = "Server-Sent Events stream: a 'score' event with the current score, then one per committed "
+                    + "change. Rapid changes are coalesced, so intermediate scores may be skipped")
+    @ApiResponse(responseCode = "200", description = "Stream opened")
+    @ApiResponse(responseCode = "503", description = "Too many live subscribers")
+    public SseEmitter liveMatchScore(
+            @Parameter(description = "Match ID", required = true) @PathVariable Long matchId
+    ) {
+        return liveScoreService.subscribeToMatch(matchId);
+    }
 }
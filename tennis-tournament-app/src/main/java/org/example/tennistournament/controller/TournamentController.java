@@ -4,14 +4,26 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.example.tennistournament.dto.CourtDto;
+import org.example.tennistournament.dto.CourtOccupancyDto;
+import org.example.tennistournament.dto.DrawRequestDto;
+import org.example.tennistournament.dto.MatchBatchResultDto;
+import org.example.tennistournament.dto.PlayerStandingDto;
 import org.example.tennistournament.dto.RegistrationRequestDto;
 import org.example.tennistournament.dto.TournamentDto;
 import org.example.tennistournament.model.RegistrationRequest;
 import org.example.tennistournament.model.Tournament;
+import org.example.tennistournament.service.CourtService;
+import org.example.tennistournament.service.DrawService;
+import org.example.tennistournament.service.LiveScoreService;
+import org.example.tennistournament.service.StandingsService;
 import org.example.tennistournament.service.TournamentService;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -23,9 +35,21 @@ import java.util.stream.Collectors;
 public class TournamentController {
 
     private final TournamentService tournamentService;
-
-    public TournamentController(TournamentService tournamentService) {
+    private final DrawService drawService;
+    private final CourtService courtService;
+    private final LiveScoreService liveScoreService;
+    private final StandingsService standingsService;
+
+    public TournamentController(TournamentService tournamentService,
+                                DrawService drawService,
+                                CourtService courtService,
+                                LiveScoreService liveScoreService,
+                                StandingsService standingsService) {
         this.tournamentService = tournamentService;
+        this.drawService = drawService;
+        this.courtService = courtService;
+        this.liveScoreService = liveScoreService;
+        this.standingsService = standingsService;
     }
 
     @PostMapping("/create")
@@ -104,4 +128,87 @@ public class TournamentController {
                 .map(TournamentDto::new)
                 .collect(Collectors.toList());
     }
+
+    @PostMapping("/{tournamentId}/draw")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Generate draw",
+            description = "Generates the pairings (knockout first round or full round robin) and the timetable "
+                    + "for the registered players, then creates all matches at once")
+    @ApiResponse(responseCode = "200", description = "Draw generated and matches created")
+    @ApiResponse(responseCode = "400", description = "Draw could not be generated, nothing created")
+    public ResponseEntity<MatchBatchResultDto> generateDraw(
+            @Parameter(description = "Tournament ID", required = true) @PathVariable Long tournamentId,
+            @RequestBody DrawRequestDto request,
+            @Parameter(description = "ID of the current user (must be ADMIN)", required = true)
+            @RequestParam Long currentUserId
+    ) {
+        MatchBatchResultDto result = drawService.generateDraw(tournamentId, request, currentUserId);
+        if (!result.errors.isEmpty()) {
+            return ResponseEntity.badRequest().body(result);
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/{tournamentId}/courts")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Add court", description = "Adds a court of the venue to the tournament")
+    @ApiResponse(responseCode = "200", description = "Court created")
+    public CourtDto createCourt(
+            @Parameter(description = "Tournament ID", required = true) @PathVariable Long tournamentId,
+            @Parameter(description = "Court name", required = true) @RequestParam String name
+    ) {
+        return new CourtDto(courtService.createCourt(tournamentId, name));
+    }
+
+    @GetMapping("/{tournamentId}/courts")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Get courts", description = "Lists the courts of the tournament")
+    public List<CourtDto> getCourts(
+            @Parameter(description = "Tournament ID", required = true) @PathVariable Long tournamentId
+    ) {
+        return courtService.getCourts(tournamentId)
+                .stream()
+                .map(CourtDto::new)
+                .collect(Collectors.toList());
+    }
+
+    @GetMapping("/{tournamentId}/courts/occupancy")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get court occupancy",
+            description = "Booked periods per court for one day, the periods in which every court is booked "
+                    + "and the venue utilization, computed from the courts' slot bitmaps")
+    public CourtOccupancyDto getCourtOccupancy(
+            @Parameter(description = "Tournament ID", required = true) @PathVariable Long tournamentId,
+            @Parameter(description = "Day", required = true)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            @RequestParam LocalDate date
+    ) {
+        return courtService.getOccupancy(tournamentId, date);
+    }
+
+    @GetMapping(value = "/{tournamentId}/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Live scores of a tournament",
+            description = "Server-Sent Events stream with a 'score' event for every committed score change "
+                    + "in the tournament. Rapid changes are coalesced per match")
+    @ApiResponse(responseCode = "200", description = "Stream opened")
+    @ApiResponse(responseCode = "503", description = "Too many live subscribers")
+    public SseEmitter liveTournamentScores(
+            @Parameter(description = "Tournament ID", required = true) @PathVariable Long tournamentId
+    ) {
+        return liveScoreService.subscribeToTournament(tournamentId);
+    }
+
+    @GetMapping("/{tournamentId}/standings")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Tournament standings",
+            description = "Players ranked by matches won, then set and game difference, with their set, "
+                    + "game and tiebreak counts. Kept up to date with every score change")
+    @ApiResponse(responseCode = "200", description = "Standings retrieved")
+    @ApiResponse(responseCode = "404", description = "Tournament not found")
+    public List<PlayerStandingDto> getStandings(
+            @Parameter(description = "Tournament ID", required = true) @PathVariable Long tournamentId
+    ) {
+        return standingsService.getTournamentStandings(tournamentId);
+    }
 }
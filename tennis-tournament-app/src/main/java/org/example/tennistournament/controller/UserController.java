@@ -5,8 +5,10 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.example.tennistournament.dto.PlayerStandingDto;
 import org.example.tennistournament.dto.UserDto;
 import org.example.tennistournament.model.User;
+import org.example.tennistournament.service.StandingsService;
 import org.example.tennistournament.service.UserService;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -20,9 +22,11 @@ import java.util.stream.Collectors;
 public class UserController {
 
     private final UserService userService;
+    private final StandingsService standingsService;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, StandingsService standingsService) {
         this.userService = userService;
+        this.standingsService = standingsService;
     }
 
     @GetMapping("/{id}")
@@ -68,4 +72,18 @@ public class UserController {
                 .map(UserDto::new)
                 .collect(Collectors.toList());
     }
+
+    @GetMapping("/{id}/standings")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Player statistics", description = "The player's standing in every tournament they have played in")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Statistics retrieved"),
+            @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    public List<PlayerStandingDto> getPlayerStandings(
+            @Parameter(description = "ID of the player", required = true)
+            @PathVariable Long id
+    ) {
+        return standingsService.getPlayerStandings(id);
+    }
 }
@@ -0,0 +1,15 @@
+package org.example.tennistournament.dto;
+
+import org.example.tennistournament.model.Court;
+
+public class CourtDto {
+    public Long   id;
+    public Long   tournamentId;
+    public String name;
+
+    public CourtDto(Court c) {
+        this.id           = c.getId();
+        this.tournamentId = c.getTournament().getId();
+        this.name         = c.getName();
+    }
+}
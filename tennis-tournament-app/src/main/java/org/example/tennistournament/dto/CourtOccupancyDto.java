@@ -0,0 +1,35 @@
+package org.example.tennistournament.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CourtOccupancyDto {
+    public LocalDate           date;
+    public int                 slotMinutes;
+    public int                 courts;
+    // booked minutes summed over all courts, and their share of the courts' whole day
+    public long                busyMinutes;
+    public double              utilization;
+    // periods in which every court is booked
+    public List<Interval>      allCourtsBusy = new ArrayList<>();
+    public List<CourtDay>      byCourt = new ArrayList<>();
+
+    public static class CourtDay {
+        public Long            courtId;
+        public String          name;
+        public long            busyMinutes;
+        public List<Interval>  busy = new ArrayList<>();
+    }
+
+    public static class Interval {
+        public LocalDateTime   startTime;
+        public LocalDateTime   endTime;
+
+        public Interval(LocalDateTime startTime, LocalDateTime endTime) {
+            this.startTime = startTime;
+            this.endTime   = endTime;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.tennistournament.dto;
+
+import org.example.tennistournament.model.DrawFormat;
+
+import java.time.LocalTime;
+import java.util.List;
+
+public class DrawRequestDto {
+    public DrawFormat format      = DrawFormat.KNOCKOUT;
+    public int        courts      = 1;
+    public int        slotMinutes = 90;
+    public LocalTime  dayStart    = LocalTime.of(9, 0);
+    public LocalTime  dayEnd      = LocalTime.of(18, 0);
+    // optional; defaults to every user with the REFEREE role
+    public List<Long> refereeIds;
+
+    public DrawRequestDto() {
+    }
+}
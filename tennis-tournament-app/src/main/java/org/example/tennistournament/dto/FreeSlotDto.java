@@ -0,0 +1,13 @@
+package org.example.tennistournament.dto;
+
+import java.time.LocalDateTime;
+
+public class FreeSlotDto {
+    public LocalDateTime startTime;
+    public LocalDateTime endTime;
+
+    public FreeSlotDto(LocalDateTime startTime, LocalDateTime endTime) {
+        this.startTime = startTime;
+        this.endTime   = endTime;
+    }
+}
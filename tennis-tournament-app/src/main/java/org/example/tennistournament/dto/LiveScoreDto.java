@@ -0,0 +1,32 @@
+package org.example.tennistournament.dto;
+
+import org.example.tennistournament.event.MatchScoreUpdatedEvent;
+import org.example.tennistournament.model.TennisMatch;
+
+import java.time.LocalDateTime;
+
+public class LiveScoreDto {
+    public Long          matchId;
+    public Long          tournamentId;
+    public String        score;
+    public Long          winnerId;
+    public LocalDateTime updatedAt;
+
+    public LiveScoreDto(MatchScoreUpdatedEvent e) {
+        this.matchId      = e.matchId();
+        this.tournamentId = e.tournamentId();
+        this.score        = e.score() != null ? e.score().toString() : "";
+        int winner        = e.score() != null ? e.score().getWinner() : 0;
+        this.winnerId     = winner == 1 ? e.player1Id() : winner == 2 ? e.player2Id() : null;
+        this.updatedAt    = LocalDateTime.now();
+    }
+
+    public LiveScoreDto(TennisMatch m) {
+        MatchDto dto      = new MatchDto(m);
+        this.matchId      = dto.id;
+        this.tournamentId = m.getTournament().getId();
+        this.score        = dto.score;
+        this.winnerId     = dto.winnerId;
+        this.updatedAt    = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.tennistournament.dto;
+
+import java.time.LocalDateTime;
+
+public class MatchBatchItemDto {
+    public Long          player1Id;
+    public Long          player2Id;
+    public Long          refereeId;
+    // optional; the first free court is booked if the tournament has courts
+    public Long          courtId;
+    public LocalDateTime startTime;
+    public LocalDateTime endTime;
+
+    public MatchBatchItemDto() {
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.tennistournament.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class MatchBatchRequestDto {
+    public Long                    tournamentId;
+    // true: any invalid item rejects the whole batch and nothing is created
+    public boolean                 atomic;
+    public List<MatchBatchItemDto> matches = new ArrayList<>();
+
+    public MatchBatchRequestDto() {
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.tennistournament.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class MatchBatchResultDto {
+    public int             received;
+    public int             created;
+    public List<MatchDto>  matches = new ArrayList<>();
+    public List<ItemError> errors  = new ArrayList<>();
+
+    public static class ItemError {
+        public int    item;
+        public String message;
+
+        public ItemError(int item, String message) {
+            this.item    = item;
+            this.message = message;
+        }
+    }
+}
@@ -10,7 +10,13 @@ public class MatchDto {
     public String          player1Username;
     public Long            player2Id;
     public String          player2Username;
+    public Long            refereeId;
+    public String          refereeUsername;
+    public Long            courtId;
+    public String          courtName;
     public String          score;
+    // winner of the match, once the score decides it
+    public Long            winnerId;
     public LocalDateTime   startTime;
     public LocalDateTime   endTime;
 
@@ -21,7 +27,13 @@ public class MatchDto {
         this.player1Username  = m.getPlayer1().getUsername();
         this.player2Id        = m.getPlayer2().getId();
         this.player2Username  = m.getPlayer2().getUsername();
+        this.refereeId        = m.getReferee() != null ? m.getReferee().getId() : null;
+        this.refereeUsername  = m.getReferee() != null ? m.getReferee().getUsername() : null;
+        this.courtId          = m.getCourt() != null ? m.getCourt().getId() : null;
+        this.courtName        = m.getCourt() != null ? m.getCourt().getName() : null;
         this.score            = m.getScore();
+        int winner            = m.getMatchScore() != null ? m.getMatchScore().getWinner() : 0;
+        this.winnerId         = winner == 1 ? this.player1Id : winner == 2 ? this.player2Id : null;
         this.startTime        = m.getStartTime();
         this.endTime          = m.getEndTime();
     }
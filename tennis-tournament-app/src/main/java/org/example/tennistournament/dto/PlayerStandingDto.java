@@ -0,0 +1,34 @@
+package org.example.tennistournament.dto;
+
+import org.example.tennistournament.model.PlayerStanding;
+
+public class PlayerStandingDto {
+    // position in the tournament (matches won, then set and game difference); null in a player's overview
+    public Integer rank;
+    public Long    tournamentId;
+    public Long    playerId;
+    public int     matchesPlayed;
+    public int     matchesWon;
+    public int     matchesLost;
+    public int     setsWon;
+    public int     setsLost;
+    public int     gamesWon;
+    public int     gamesLost;
+    public int     tiebreaksWon;
+    public int     tiebreaksLost;
+
+    public PlayerStandingDto(PlayerStanding s, Integer rank) {
+        this.rank          = rank;
+        this.tournamentId  = s.getTournamentId();
+        this.playerId      = s.getPlayerId();
+        this.matchesPlayed = s.getMatchesPlayed();
+        this.matchesWon    = s.getMatchesWon();
+        this.matchesLost   = s.getMatchesPlayed() - s.getMatchesWon();
+        this.setsWon       = s.getSetsWon();
+        this.setsLost      = s.getSetsLost();
+        this.gamesWon      = s.getGamesWon();
+        this.gamesLost     = s.getGamesLost();
+        this.tiebreaksWon  = s.getTiebreaksWon();
+        this.tiebreaksLost = s.getTiebreaksLost();
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.tennistournament.dto;
+
+import org.example.tennistournament.service.MatchPointState;
+
+public class PointScoreDto {
+    public Long    matchId;
+    // events recorded for the match so far, undos included
+    public int     seq;
+    // completed sets and the games of the set in play
+    public String  score;
+    // points of the game in play (tiebreak points during a tiebreak)
+    public String  game;
+    public boolean tiebreak;
+    public boolean finished;
+    public Long    winnerId;
+
+    public PointScoreDto(Long matchId, int seq, MatchPointState state, Long winnerId) {
+        this.matchId  = matchId;
+        this.seq      = seq;
+        this.score    = state.getScoreText();
+        this.game     = state.getGameText();
+        this.tiebreak = !state.isFinished() && state.isTiebreak();
+        this.finished = state.isFinished();
+        this.winnerId = winnerId;
+    }
+}
@@ -0,0 +1,11 @@
+package org.example.tennistournament.dto;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+public class RefereeRebalanceResultDto {
+    public int             matches;
+    public int             reassigned;
+    // referee id -> minutes assigned in the tournament after the rebalance
+    public Map<Long, Long> minutesByReferee = new TreeMap<>();
+}
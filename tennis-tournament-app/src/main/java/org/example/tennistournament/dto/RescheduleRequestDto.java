@@ -0,0 +1,24 @@
+package org.example.tennistournament.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+public class RescheduleRequestDto {
+    // which matches: the given ids, or every match of the day starting at/after fromTime (and before untilTime)
+    public List<Long>    matchIds;
+    public LocalDate     date;
+    public LocalTime     fromTime;
+    public LocalTime     untilTime;
+    // where to: shift by a delta, or move the first selected match to windowStart keeping the gaps
+    public Integer       shiftMinutes;
+    public LocalDateTime windowStart;
+    // optional: moved matches must end by then
+    public LocalDateTime windowEnd;
+    // all or nothing
+    public boolean       atomic;
+
+    public RescheduleRequestDto() {
+    }
+}
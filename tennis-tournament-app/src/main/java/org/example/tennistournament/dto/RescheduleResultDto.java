@@ -0,0 +1,22 @@
+package org.example.tennistournament.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RescheduleResultDto {
+    public int             selected;
+    public int             moved;
+    public long            shiftMinutes;
+    public List<MatchDto>  matches  = new ArrayList<>();
+    public List<NotMoved>  notMoved = new ArrayList<>();
+
+    public static class NotMoved {
+        public Long   matchId;
+        public String reason;
+
+        public NotMoved(Long matchId, String reason) {
+            this.matchId = matchId;
+            this.reason  = reason;
+        }
+    }
+}
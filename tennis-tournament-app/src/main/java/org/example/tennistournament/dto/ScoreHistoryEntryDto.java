@@ -0,0 +1,26 @@
+package org.example.tennistournament.dto;
+
+import org.example.tennistournament.journal.ScoreJournalRecord;
+
+import java.time.LocalDateTime;
+
+public class ScoreHistoryEntryDto {
+    public LocalDateTime recordedAt;
+    public Long          matchId;
+    public Long          tournamentId;
+    public Long          updatedById;
+    public String        previousScore;
+    public String        score;
+    // 1 or 2 once the new score decides the match, 0 before
+    public int           winner;
+
+    public ScoreHistoryEntryDto(ScoreJournalRecord r) {
+        this.recordedAt    = r.getRecordedAt();
+        this.matchId       = r.matchId();
+        this.tournamentId  = r.tournamentId();
+        this.updatedById   = r.updatedById() != 0 ? r.updatedById() : null;
+        this.previousScore = r.previousScore() != null ? r.previousScore().toString() : "";
+        this.score         = r.score() != null ? r.score().toString() : "";
+        this.winner        = r.score() != null ? r.score().getWinner() : 0;
+    }
+}
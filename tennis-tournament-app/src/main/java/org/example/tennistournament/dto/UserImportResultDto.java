@@ -0,0 +1,22 @@
+package org.example.tennistournament.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class UserImportResultDto {
+    public int            received;
+    public int            created;
+    public List<RowError> errors = new ArrayList<>();
+
+    public static class RowError {
+        public int    row;
+        public String username;
+        public String message;
+
+        public RowError(int row, String username, String message) {
+            this.row      = row;
+            this.username = username;
+            this.message  = message;
+        }
+    }
+}
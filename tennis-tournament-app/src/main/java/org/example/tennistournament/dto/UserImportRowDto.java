@@ -0,0 +1,17 @@
+package org.example.tennistournament.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.example.tennistournament.model.Role;
+
+public class UserImportRowDto {
+    public String username;
+    public String email;
+    public String password;
+    public Role   role = Role.PLAYER;
+
+    @JsonIgnore
+    public int    line; // line in a CSV upload, 0 for JSON rows
+
+    public UserImportRowDto() {
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.tennistournament.event;
+
+/**
+ * Published inside the transaction that moves a match or assigns it another referee, for
+ * components that keep the schedule of a match in memory.
+ */
+public record MatchScheduleChangedEvent(Long matchId) {
+}
@@ -0,0 +1,17 @@
+package org.example.tennistournament.event;
+
+import org.example.tennistournament.model.MatchScore;
+
+/**
+ * Published inside the transaction that changes a match score; listeners choose their phase.
+ * {@code updatedById} is the referee or admin who changed it; {@code previousScore} is null if
+ * the match had no score yet, {@code score} if it was cleared.
+ */
+public record MatchScoreUpdatedEvent(Long matchId,
+                                     Long tournamentId,
+                                     Long player1Id,
+                                     Long player2Id,
+                                     Long updatedById,
+                                     MatchScore previousScore,
+                                     MatchScore score) {
+}
@@ -0,0 +1,18 @@
+package org.example.tennistournament.exception;
+
+/**
+ * Thrown when a bounded worker pool cannot accept more work; mapped to 503 with Retry-After.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
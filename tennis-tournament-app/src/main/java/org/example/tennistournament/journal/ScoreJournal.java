@@ -0,0 +1,298 @@
+package org.example.tennistournament.journal;
+
+import jakarta.annotation.PreDestroy;
+import org.example.tennistournament.event.MatchScoreUpdatedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append-only journal of committed score changes, for audits and replays.
+ * <p>
+ * One or more segments per day ({@code scores-2026-10-17-0000.journal}), each a fixed-size
+ * file mapped into memory. After the transaction has committed, the record is handed to the
+ * journal writer thread through a bounded queue, so the journal never holds up or rolls back a
+ * score update; when the queue is full the record is dropped with an error log. The writer copies
+ * each record (64 bytes) into the mapping and maps the next segment while the current one is
+ * still filling up, so rolling over to it costs nothing. The operating system writes the pages
+ * back; segments are forced to disk when they are closed. On restart, today's last segment is
+ * reopened and appending continues after its last record.
+ */
+@Component
+public class ScoreJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(ScoreJournal.class);
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final ScoreJournalReader reader;
+    private final BlockingQueue<ScoreJournalRecord> queue;
+    private final ExecutorService writer;
+    private volatile boolean running = true;
+
+    // records handed to the writer and records it has appended (or failed to)
+    private final AtomicLong enqueued = new AtomicLong();
+    private long appended; // guarded by progress
+    private final Object progress = new Object();
+
+    // current and next segment, used by the writer thread only
+    private LocalDate segmentDate;
+    private int segmentIndex;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private int capacity;
+    private int position;
+    private Path nextPath;
+    private FileChannel nextChannel;
+    private MappedByteBuffer nextSegment;
+
+    public ScoreJournal(@Value("${application.journal.enabled:true}") boolean enabled,
+                        @Value("${application.journal.dir:data/journal}") String directory,
+                        @Value("${application.journal.segment-records:262144}") int recordsPerSegment,
+                        @Value("${application.journal.queue-capacity:65536}") int queueCapacity) {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        // a mapping is indexed by int
+        this.recordsPerSegment = Math.max(1, Math.min(recordsPerSegment, Integer.MAX_VALUE / ScoreJournalRecord.SIZE));
+        this.reader = new ScoreJournalReader(this.directory);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "score-journal-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        if (enabled) {
+            writer.execute(this::writeLoop);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onScoreUpdated(MatchScoreUpdatedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        ScoreJournalRecord record = new ScoreJournalRecord(System.currentTimeMillis(),
+                event.matchId(), event.tournamentId(),
+                event.updatedById() != null ? event.updatedById() : 0,
+                event.previousScore(), event.score());
+        if (queue.offer(record)) {
+            enqueued.incrementAndGet();
+        } else {
+            // the score is committed either way; a gap shows up in the audit
+            log.error("Journal queue is full, score change of match {} not journaled", event.matchId());
+        }
+    }
+
+    /**
+     * Waits until the records queued so far are in the journal, at most for the given time.
+     */
+    public void awaitWritten(Duration timeout) {
+        long target = enqueued.get();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (progress) {
+            while (appended < target) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    return;
+                }
+                try {
+                    progress.wait(remaining);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    public ScoreJournalReader reader() {
+        return reader;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    private void writeLoop() {
+        try {
+            while (running || !queue.isEmpty()) {
+                ScoreJournalRecord record = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (record == null) {
+                    continue;
+                }
+                do {
+                    try {
+                        append(record);
+                    } catch (IOException | RuntimeException ex) {
+                        log.error("Could not journal score change of match {}: {}", record.matchId(), ex.getMessage());
+                    }
+                    synchronized (progress) {
+                        appended++;
+                        progress.notifyAll();
+                    }
+                    record = queue.poll();
+                } while (record != null);
+                prepareNext();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeSegments();
+        }
+    }
+
+    private void append(ScoreJournalRecord record) throws IOException {
+        LocalDate today = record.getRecordedAt().toLocalDate();
+        if (!today.equals(segmentDate)) {
+            openLast(today);
+        }
+        if (position == capacity) {
+            open(today, segmentIndex + 1);
+        }
+        record.writeTo(segment, position * ScoreJournalRecord.SIZE);
+        position++;
+    }
+
+    // once a quarter of the segment is left, the next one is mapped ahead of time
+    private void prepareNext() {
+        if (segment == null || nextSegment != null || capacity - position > capacity / 4) {
+            return;
+        }
+        nextPath = directory.resolve(ScoreJournalReader.segmentName(segmentDate, segmentIndex + 1));
+        try {
+            nextChannel = FileChannel.open(nextPath,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            nextSegment = map(nextChannel);
+        } catch (IOException ex) {
+            log.warn("Preparing journal segment {} of {} failed: {}", segmentIndex + 1, segmentDate, ex.getMessage());
+            closeNext();
+        }
+    }
+
+    private void openLast(LocalDate date) throws IOException {
+        Files.createDirectories(directory);
+        List<ScoreJournalReader.Segment> existing = reader.segments(date, date);
+        open(date, existing.isEmpty() ? 0 : existing.get(existing.size() - 1).index());
+        if (position == capacity) {
+            open(date, segmentIndex + 1);
+        }
+    }
+
+    private void open(LocalDate date, int index) throws IOException {
+        boolean prepared = nextSegment != null && date.equals(segmentDate) && index == segmentIndex + 1;
+        closeCurrent();
+        FileChannel opened;
+        MappedByteBuffer mapped;
+        if (prepared) {
+            opened = nextChannel;
+            mapped = nextSegment;
+            nextPath = null;
+            nextChannel = null;
+            nextSegment = null;
+        } else {
+            closeNext();
+            Path path = directory.resolve(ScoreJournalReader.segmentName(date, index));
+            opened = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            mapped = map(opened);
+        }
+        segment = mapped;
+        channel = opened;
+        segmentDate = date;
+        segmentIndex = index;
+        capacity = mapped.capacity() / ScoreJournalRecord.SIZE;
+        position = findEnd(segment, capacity);
+    }
+
+    private MappedByteBuffer map(FileChannel opened) throws IOException {
+        // mapping past the end grows the file to its full, zero-filled size
+        long size = Math.max(opened.size(), (long) recordsPerSegment * ScoreJournalRecord.SIZE);
+        return opened.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    // records fill a prefix of the segment: binary search for the first unwritten one
+    private static int findEnd(MappedByteBuffer buffer, int records) {
+        int low = 0;
+        int high = records;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ScoreJournalRecord.isWritten(buffer, mid * ScoreJournalRecord.SIZE)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void closeSegments() {
+        closeCurrent();
+        closeNext();
+    }
+
+    private void closeCurrent() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            segment.force();
+            channel.close();
+        } catch (IOException ex) {
+            log.warn("Closing journal segment {} of {} failed: {}", segmentIndex, segmentDate, ex.getMessage());
+        }
+        channel = null;
+        segment = null;
+        segmentDate = null;
+    }
+
+    // a prepared segment that was never used is removed again
+    private void closeNext() {
+        if (nextChannel == null) {
+            return;
+        }
+        try {
+            nextChannel.close();
+            if (nextSegment == null || !ScoreJournalRecord.isWritten(nextSegment, 0)) {
+                Files.deleteIfExists(nextPath);
+            }
+        } catch (IOException ex) {
+            log.warn("Closing prepared journal segment {} failed: {}", nextPath, ex.getMessage());
+        }
+        nextPath = null;
+        nextChannel = null;
+        nextSegment = null;
+    }
+
+    /**
+     * Writes out what is still queued and closes the segments.
+     */
+    @PreDestroy
+    public void close() throws InterruptedException {
+        running = false;
+        writer.shutdown();
+        if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Journal writer did not finish, {} score changes not journaled", queue.size());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.tennistournament.journal;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Reads journal segments straight from the files, in write order. Needs neither Spring nor the
+ * database, so the same code serves the history endpoint and {@code ScoreJournalTool}.
+ * Segments are mapped read-only; records appended meanwhile by the writer in this process are
+ * seen up to the moment each segment is reached.
+ */
+public final class ScoreJournalReader {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("scores-(\\d{4}-\\d{2}-\\d{2})-(\\d{4})\\.journal");
+
+    @FunctionalInterface
+    public interface RecordVisitor {
+        void visit(ScoreJournalRecord record) throws IOException;
+    }
+
+    private final Path directory;
+
+    public ScoreJournalReader(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Visits every record in segments dated {@code from}..{@code to} (either may be null for no
+     * bound), oldest first.
+     */
+    public void forEach(LocalDate from, LocalDate to, RecordVisitor visitor) throws IOException {
+        for (Segment segment : segments(from, to)) {
+            try (FileChannel channel = FileChannel.open(segment.path(), StandardOpenOption.READ)) {
+                int records = (int) (channel.size() / ScoreJournalRecord.SIZE);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                        (long) records * ScoreJournalRecord.SIZE);
+                for (int i = 0; i < records; i++) {
+                    ScoreJournalRecord record = ScoreJournalRecord.readFrom(buffer, i * ScoreJournalRecord.SIZE);
+                    if (record == null) {
+                        break;
+                    }
+                    visitor.visit(record);
+                }
+            }
+        }
+    }
+
+    List<Segment> segments(LocalDate from, LocalDate to) throws IOException {
+        List<Segment> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(path -> {
+                Matcher m = SEGMENT_NAME.matcher(path.getFileName().toString());
+                if (m.matches()) {
+                    LocalDate date = LocalDate.parse(m.group(1));
+                    if ((from == null || !date.isBefore(from)) && (to == null || !date.isAfter(to))) {
+                        segments.add(new Segment(path, date, Integer.parseInt(m.group(2))));
+                    }
+                }
+            });
+        }
+        segments.sort(Comparator.comparing(Segment::date).thenComparingInt(Segment::index));
+        return segments;
+    }
+
+    static String segmentName(LocalDate date, int index) {
+        return String.format("scores-%s-%04d.journal", date, index);
+    }
+
+    record Segment(Path path, LocalDate date, int index) {
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.tennistournament.journal;
+
+import org.example.tennistournament.model.MatchScore;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * One score change in the journal, stored as a fixed 64-byte record (big-endian):
+ * <pre>
+ *  0  recorded at, epoch milliseconds (never 0; written last and marks the record complete)
+ *  8  match id
+ * 16  tournament id
+ * 24  id of the user who changed the score (0 if unknown)
+ * 32  previous score, packed {@link MatchScore} (all zero: none)
+ * 48  new score, packed {@link MatchScore} (all zero: none)
+ * </pre>
+ * Segments are zero-filled, so the first record whose timestamp is 0 ends the segment.
+ */
+public record ScoreJournalRecord(long recordedAtMillis,
+                                 long matchId,
+                                 long tournamentId,
+                                 long updatedById,
+                                 MatchScore previousScore,
+                                 MatchScore score) {
+
+    public static final int SIZE = 64;
+
+    private static final int MATCH = 8;
+    private static final int TOURNAMENT = 16;
+    private static final int UPDATED_BY = 24;
+    private static final int PREVIOUS = 32;
+    private static final int SCORE = PREVIOUS + MatchScore.ENCODED_LENGTH;
+
+    public ScoreJournalRecord {
+        if (recordedAtMillis <= 0) {
+            throw new IllegalArgumentException("Journal records need a timestamp");
+        }
+    }
+
+    public LocalDateTime getRecordedAt() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(recordedAtMillis), ZoneId.systemDefault());
+    }
+
+    /**
+     * Writes the record at the absolute offset; the timestamp goes last, so a reader never sees
+     * a half-written record as complete.
+     */
+    public void writeTo(ByteBuffer buffer, int offset) {
+        buffer.putLong(offset + MATCH, matchId);
+        buffer.putLong(offset + TOURNAMENT, tournamentId);
+        buffer.putLong(offset + UPDATED_BY, updatedById);
+        buffer.put(offset + PREVIOUS, encode(previousScore));
+        buffer.put(offset + SCORE, encode(score));
+        buffer.putLong(offset, recordedAtMillis);
+    }
+
+    /**
+     * Reads the record at the absolute offset, or null if none was written there.
+     */
+    public static ScoreJournalRecord readFrom(ByteBuffer buffer, int offset) {
+        long recordedAt = buffer.getLong(offset);
+        if (recordedAt == 0) {
+            return null;
+        }
+        return new ScoreJournalRecord(recordedAt,
+                buffer.getLong(offset + MATCH),
+                buffer.getLong(offset + TOURNAMENT),
+                buffer.getLong(offset + UPDATED_BY),
+                decode(buffer, offset + PREVIOUS),
+                decode(buffer, offset + SCORE));
+    }
+
+    /**
+     * Whether a record was written at the offset, without decoding it.
+     */
+    static boolean isWritten(ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset) != 0;
+    }
+
+    private static byte[] encode(MatchScore score) {
+        return score != null ? score.toBytes() : new byte[MatchScore.ENCODED_LENGTH];
+    }
+
+    private static MatchScore decode(ByteBuffer buffer, int offset) {
+        byte[] bytes = new byte[MatchScore.ENCODED_LENGTH];
+        buffer.get(offset, bytes);
+        MatchScore score = MatchScore.fromBytes(bytes);
+        return score.isEmpty() ? null : score;
+    }
+}
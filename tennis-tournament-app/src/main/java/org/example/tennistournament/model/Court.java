@@ -0,0 +1,50 @@
+package org.example.tennistournament.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+
+@Entity
+@Table(
+        name = "court",
+        uniqueConstraints = @UniqueConstraint(name = "unique_court_name", columnNames = {"tournament_id", "name"})
+)
+@Schema(description = "Court of the venue on which a tournament's matches are played")
+public class Court {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Schema(description = "Unique identifier of the court", example = "3")
+    private Long id;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "tournament_id")
+    @Schema(description = "Tournament the court is used for")
+    private Tournament tournament;
+
+    @Column(nullable = false)
+    @Schema(description = "Name of the court", example = "Centre Court")
+    private String name;
+
+    public Court() {}
+
+    public Court(Tournament tournament, String name) {
+        this.tournament = tournament;
+        this.name = name;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Tournament getTournament() {
+        return tournament;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.tennistournament.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * Occupancy of one court on one day as a bit set of 5-minute slots (bit i = minutes [5i, 5i + 5)).
+ */
+@Entity
+@Table(
+        name = "court_schedule",
+        uniqueConstraints = @UniqueConstraint(name = "unique_court_schedule_date", columnNames = {"court_id", "schedule_date"})
+)
+@Schema(description = "Per-day slot bitmap of a court")
+public class CourtSchedule {
+
+    public static final int SLOT_MINUTES = 5;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // NOT NULL so existing rows get 0 when the column is added
+    @Version
+    @Column(nullable = false)
+    private Long version = 0L;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "court_id")
+    private Court court;
+
+    @Column(name = "schedule_date", nullable = false)
+    private LocalDate date;
+
+    @Column(nullable = false, length = SLOTS_PER_DAY / 8)
+    private byte[] slots = new byte[SLOTS_PER_DAY / 8];
+
+    public CourtSchedule() {}
+
+    public CourtSchedule(Court court, LocalDate date) {
+        this.court = court;
+        this.date = date;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Court getCourt() {
+        return court;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public byte[] getSlots() {
+        return slots;
+    }
+
+    public void setSlots(byte[] slots) {
+        this.slots = slots;
+    }
+}
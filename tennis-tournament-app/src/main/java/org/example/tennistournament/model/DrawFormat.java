@@ -0,0 +1,6 @@
+package org.example.tennistournament.model;
+
+public enum DrawFormat {
+    KNOCKOUT,
+    ROUND_ROBIN
+}
@@ -0,0 +1,65 @@
+package org.example.tennistournament.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of a match's point log: a point won by a player or the undo of the last point.
+ * Rows are only ever inserted, in batches; replaying them in {@code seq} order rebuilds the
+ * match state. The match is referenced by id only, so the inserts need no join or key check.
+ */
+@Entity
+@Table(
+        name = "match_point_event",
+        uniqueConstraints = @UniqueConstraint(name = "unique_match_point_seq", columnNames = {"match_id", "seq"})
+)
+@Schema(description = "Point-by-point scoring event of a match")
+public class MatchPointEvent {
+
+    public static final byte UNDO = 0;
+    public static final byte POINT_PLAYER1 = 1;
+    public static final byte POINT_PLAYER2 = 2;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "match_id", nullable = false)
+    @Schema(description = "Match the event belongs to", example = "100")
+    private Long matchId;
+
+    @Column(nullable = false)
+    @Schema(description = "Position of the event in the match's log, from 1", example = "42")
+    private int seq;
+
+    @Column(nullable = false)
+    @Schema(description = "0 undo, 1 point to player1, 2 point to player2", example = "1")
+    private byte kind;
+
+    @Column(name = "recorded_at", nullable = false)
+    private LocalDateTime recordedAt;
+
+    public MatchPointEvent() {}
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getMatchId() {
+        return matchId;
+    }
+
+    public int getSeq() {
+        return seq;
+    }
+
+    public byte getKind() {
+        return kind;
+    }
+
+    public LocalDateTime getRecordedAt() {
+        return recordedAt;
+    }
+}
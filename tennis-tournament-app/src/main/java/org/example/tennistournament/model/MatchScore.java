@@ -0,0 +1,285 @@
+package org.example.tennistournament.model;
+
+import java.util.Arrays;
+
+/**
+ * Score of a match as sets of games, packed into a fixed 16-byte array:
+ * byte 0 holds the number of sets (bits 0-2) and the match winner (bits 3-4: 0 none, 1 player1,
+ * 2 player2); every set then takes three bytes: games of player1, games of player2 and the
+ * tiebreak points of the tiebreak loser (0xFF if the set had none or they were not given).
+ * <p>
+ * Text form: {@code 6-4,3-6,7-6(5)}. Parsing validates the tennis rules: a completed set is
+ * 6-0..6-4, 7-5 or 7-6 (tiebreak), an advantage set (8-6, 9-7, ...) only as the deciding set;
+ * only the last set may be unfinished and nothing may follow the deciding set.
+ * Accessors read the packed bytes directly, so standings and statistics never parse text.
+ */
+public final class MatchScore {
+
+    public static final int MAX_SETS = 5;
+    public static final int ENCODED_LENGTH = 1 + MAX_SETS * 3;
+    public static final MatchScore EMPTY = new MatchScore(new byte[ENCODED_LENGTH]);
+
+    private static final int NO_TIEBREAK = 0xFF;
+    private static final int MAX_GAMES = 99;
+
+    private final byte[] data;
+
+    private MatchScore(byte[] data) {
+        this.data = data;
+    }
+
+    // --- accessors ---
+
+    public int getSetCount() {
+        return data[0] & 0x07;
+    }
+
+    /**
+     * 1 or 2 for the player that won the match, 0 while it is undecided.
+     */
+    public int getWinner() {
+        return (data[0] >> 3) & 0x03;
+    }
+
+    public boolean isFinished() {
+        return getWinner() != 0;
+    }
+
+    public boolean isEmpty() {
+        return getSetCount() == 0;
+    }
+
+    /**
+     * Games won by the player (1 or 2) in the set (0-based).
+     */
+    public int getGames(int set, int player) {
+        return data[1 + set * 3 + (player == 1 ? 0 : 1)];
+    }
+
+    /**
+     * Tiebreak points of the tiebreak loser in the set, or -1.
+     */
+    public int getTiebreakPoints(int set) {
+        int points = data[3 + set * 3] & 0xFF;
+        return points == NO_TIEBREAK ? -1 : points;
+    }
+
+    /**
+     * 1 or 2 for the player that won the set, 0 if it is unfinished.
+     */
+    public int getSetWinner(int set) {
+        // stored scores are validated, so an advantage set here is always the deciding one
+        return setWinner(getGames(set, 1), getGames(set, 2), true);
+    }
+
+    public int getSetsWon(int player) {
+        int won = 0;
+        for (int i = 0; i < getSetCount(); i++) {
+            if (getSetWinner(i) == player) {
+                won++;
+            }
+        }
+        return won;
+    }
+
+    public int getGamesWon(int player) {
+        int won = 0;
+        for (int i = 0; i < getSetCount(); i++) {
+            won += getGames(i, player);
+        }
+        return won;
+    }
+
+    // --- encoding ---
+
+    public byte[] toBytes() {
+        return data.clone();
+    }
+
+    public static MatchScore fromBytes(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        if (bytes.length != ENCODED_LENGTH) {
+            throw new IllegalArgumentException("Packed score must be " + ENCODED_LENGTH + " bytes");
+        }
+        return new MatchScore(bytes.clone());
+    }
+
+    // --- text ---
+
+    /**
+     * Appends the text form, e.g. {@code 6-4,7-6(5)}, without intermediate strings.
+     */
+    public StringBuilder appendTo(StringBuilder sb) {
+        for (int i = 0; i < getSetCount(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(getGames(i, 1)).append('-').append(getGames(i, 2));
+            int tiebreak = getTiebreakPoints(i);
+            if (tiebreak >= 0) {
+                sb.append('(').append(tiebreak).append(')');
+            }
+        }
+        return sb;
+    }
+
+    @Override
+    public String toString() {
+        return appendTo(new StringBuilder(getSetCount() * 7)).toString();
+    }
+
+    /**
+     * Parses and validates a score for a best-of-{@code bestOf} match (3 or 5). Blank text is
+     * the empty score. Spaces around commas are allowed.
+     *
+     * @throws IllegalArgumentException if the text is malformed or breaks the rules
+     */
+    public static MatchScore parse(CharSequence text, int bestOf) {
+        if (bestOf != 3 && bestOf != 5) {
+            throw new IllegalArgumentException("Matches are best of 3 or 5 sets");
+        }
+        byte[] data = new byte[ENCODED_LENGTH];
+        int length = text.length();
+        int pos = skipSpaces(text, 0);
+        if (pos == length) {
+            return EMPTY;
+        }
+        int sets = 0;
+        int need = bestOf / 2 + 1;
+        int won1 = 0;
+        int won2 = 0;
+        boolean unfinished = false;
+        while (true) {
+            if (sets == bestOf || won1 == need || won2 == need) {
+                throw new IllegalArgumentException("No more sets can follow: the match is decided");
+            }
+            if (unfinished) {
+                throw new IllegalArgumentException("Only the last set can be unfinished");
+            }
+            // games-games
+            int g1 = 0;
+            int start = pos;
+            while (pos < length && isDigit(text.charAt(pos))) {
+                g1 = g1 * 10 + text.charAt(pos++) - '0';
+                if (g1 > MAX_GAMES) {
+                    throw malformed();
+                }
+            }
+            if (pos == start || pos == length || text.charAt(pos++) != '-') {
+                throw malformed();
+            }
+            int g2 = 0;
+            start = pos;
+            while (pos < length && isDigit(text.charAt(pos))) {
+                g2 = g2 * 10 + text.charAt(pos++) - '0';
+                if (g2 > MAX_GAMES) {
+                    throw malformed();
+                }
+            }
+            if (pos == start) {
+                throw malformed();
+            }
+            // optional (tiebreak points)
+            int tiebreak = NO_TIEBREAK;
+            if (pos < length && text.charAt(pos) == '(') {
+                pos++;
+                tiebreak = 0;
+                start = pos;
+                while (pos < length && isDigit(text.charAt(pos))) {
+                    tiebreak = tiebreak * 10 + text.charAt(pos++) - '0';
+                    if (tiebreak >= NO_TIEBREAK) {
+                        throw malformed();
+                    }
+                }
+                if (pos == start || pos == length || text.charAt(pos++) != ')') {
+                    throw malformed();
+                }
+            }
+
+            boolean deciding = sets == bestOf - 1;
+            int setWinner = setWinner(g1, g2, deciding);
+            if (setWinner == 0 && !isReachable(g1, g2, deciding)) {
+                throw new IllegalArgumentException("Set " + (sets + 1) + " score " + g1 + "-" + g2 + " is not possible");
+            }
+            if (tiebreak != NO_TIEBREAK) {
+                if (!((g1 == 7 && g2 == 6) || (g1 == 6 && g2 == 7))) {
+                    throw new IllegalArgumentException("Tiebreak points only belong to a 7-6 set");
+                }
+            }
+            data[1 + sets * 3] = (byte) g1;
+            data[2 + sets * 3] = (byte) g2;
+            data[3 + sets * 3] = (byte) tiebreak;
+            sets++;
+            if (setWinner == 1) {
+                won1++;
+            } else if (setWinner == 2) {
+                won2++;
+            } else {
+                unfinished = true;
+            }
+
+            pos = skipSpaces(text, pos);
+            if (pos == length) {
+                break;
+            }
+            if (text.charAt(pos++) != ',') {
+                throw malformed();
+            }
+            pos = skipSpaces(text, pos);
+        }
+        int winner = won1 == need ? 1 : won2 == need ? 2 : 0;
+        data[0] = (byte) (sets | winner << 3);
+        return new MatchScore(data);
+    }
+
+    // winner of a set with these games (1 or 2), 0 if the set is not over
+    private static int setWinner(int g1, int g2, boolean deciding) {
+        int high = Math.max(g1, g2);
+        int low = Math.min(g1, g2);
+        boolean over = (high == 6 && low <= 4)
+                || (high == 7 && (low == 5 || low == 6))
+                || (deciding && high > 7 && low == high - 2);
+        if (!over) {
+            return 0;
+        }
+        return g1 > g2 ? 1 : 2;
+    }
+
+    // an unfinished set that can still be played on
+    private static boolean isReachable(int g1, int g2, boolean deciding) {
+        int high = Math.max(g1, g2);
+        int low = Math.min(g1, g2);
+        if (high <= 5 || (high == 6 && low >= 5)) {
+            return true;
+        }
+        // deciding advantage set: level or one game apart beyond 6-6
+        return deciding && low >= 6 && high - low <= 1;
+    }
+
+    private static int skipSpaces(CharSequence text, int pos) {
+        while (pos < text.length() && text.charAt(pos) == ' ') {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static IllegalArgumentException malformed() {
+        return new IllegalArgumentException("Score format invalid. Example: 6-4,3-6,7-5");
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof MatchScore other && Arrays.equals(data, other.data));
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(data);
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.tennistournament.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores a {@link MatchScore} as its packed bytes.
+ */
+@Converter
+public class MatchScoreConverter implements AttributeConverter<MatchScore, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(MatchScore score) {
+        return score != null ? score.toBytes() : null;
+    }
+
+    @Override
+    public MatchScore convertToEntityAttribute(byte[] bytes) {
+        return MatchScore.fromBytes(bytes);
+    }
+}
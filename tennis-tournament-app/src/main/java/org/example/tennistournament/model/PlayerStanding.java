@@ -0,0 +1,147 @@
+package org.example.tennistournament.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+
+/**
+ * Materialized per-player aggregates of one tournament, kept current by adding the difference
+ * between a match's previous and new score in the transaction that changes it. The rows are
+ * only changed by relative SQL updates that also bump {@code version}, so a cached copy with a
+ * higher version is always the newer one.
+ */
+@Entity
+@Table(
+        name = "player_standing",
+        uniqueConstraints = @UniqueConstraint(name = "unique_player_standing", columnNames = {"tournament_id", "player_id"}),
+        indexes = @Index(name = "idx_player_standing_player", columnList = "player_id")
+)
+@Schema(description = "Aggregated results of a player in a tournament")
+public class PlayerStanding {
+
+    // positions of the counters in the arrays produced by totalsOf
+    public static final int MATCHES_PLAYED = 0;
+    public static final int MATCHES_WON = 1;
+    public static final int SETS_WON = 2;
+    public static final int SETS_LOST = 3;
+    public static final int GAMES_WON = 4;
+    public static final int GAMES_LOST = 5;
+    public static final int TIEBREAKS_WON = 6;
+    public static final int TIEBREAKS_LOST = 7;
+    public static final int COUNTERS = 8;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private long version;
+
+    @Column(name = "tournament_id", nullable = false)
+    private Long tournamentId;
+
+    @Column(name = "player_id", nullable = false)
+    private Long playerId;
+
+    @Column(name = "matches_played", nullable = false)
+    private int matchesPlayed;
+
+    @Column(name = "matches_won", nullable = false)
+    private int matchesWon;
+
+    @Column(name = "sets_won", nullable = false)
+    private int setsWon;
+
+    @Column(name = "sets_lost", nullable = false)
+    private int setsLost;
+
+    @Column(name = "games_won", nullable = false)
+    private int gamesWon;
+
+    @Column(name = "games_lost", nullable = false)
+    private int gamesLost;
+
+    @Column(name = "tiebreaks_won", nullable = false)
+    private int tiebreaksWon;
+
+    @Column(name = "tiebreaks_lost", nullable = false)
+    private int tiebreaksLost;
+
+    public PlayerStanding() {}
+
+    /**
+     * What a score adds to the counters of player 1 or 2; all zero for no score. A match counts
+     * as played once it is decided, a set once it is completed; games and tiebreaks count as
+     * they are recorded.
+     */
+    public static long[] totalsOf(MatchScore score, int player) {
+        long[] totals = new long[COUNTERS];
+        if (score == null || score.isEmpty()) {
+            return totals;
+        }
+        int other = 3 - player;
+        if (score.isFinished()) {
+            totals[MATCHES_PLAYED] = 1;
+            totals[MATCHES_WON] = score.getWinner() == player ? 1 : 0;
+        }
+        totals[SETS_WON] = score.getSetsWon(player);
+        totals[SETS_LOST] = score.getSetsWon(other);
+        totals[GAMES_WON] = score.getGamesWon(player);
+        totals[GAMES_LOST] = score.getGamesWon(other);
+        for (int set = 0; set < score.getSetCount(); set++) {
+            int mine = score.getGames(set, player);
+            int theirs = score.getGames(set, other);
+            if (mine + theirs == 13 && Math.max(mine, theirs) == 7) {
+                totals[mine == 7 ? TIEBREAKS_WON : TIEBREAKS_LOST]++;
+            }
+        }
+        return totals;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Long getTournamentId() {
+        return tournamentId;
+    }
+
+    public Long getPlayerId() {
+        return playerId;
+    }
+
+    public int getMatchesPlayed() {
+        return matchesPlayed;
+    }
+
+    public int getMatchesWon() {
+        return matchesWon;
+    }
+
+    public int getSetsWon() {
+        return setsWon;
+    }
+
+    public int getSetsLost() {
+        return setsLost;
+    }
+
+    public int getGamesWon() {
+        return gamesWon;
+    }
+
+    public int getGamesLost() {
+        return gamesLost;
+    }
+
+    public int getTiebreaksWon() {
+        return tiebreaksWon;
+    }
+
+    public int getTiebreaksLost() {
+        return tiebreaksLost;
+    }
+}
@@ -12,6 +12,12 @@ import java.time.LocalDateTime;
                         name = "unique_match_constraint",
                         columnNames = {"player1_id", "player2_id", "start_time"}
                 )
+        },
+        // one covering range index per participant role, used by the overlap query branches
+        indexes = {
+                @Index(name = "idx_match_player1_time", columnList = "player1_id, start_time, end_time"),
+                @Index(name = "idx_match_player2_time", columnList = "player2_id, start_time, end_time"),
+                @Index(name = "idx_match_referee_time", columnList = "referee_id, start_time, end_time")
         }
 )
 @Schema(description = "TennisMatch entity representing a match within a tournament")
@@ -41,12 +47,23 @@ public class TennisMatch {
     private User player2;
 
     @ManyToOne
+    @JoinColumn(name = "referee_id")
     @Schema(description = "Referee assigned to the match")
     private User referee;
 
+    @ManyToOne
+    @JoinColumn(name = "court_id")
+    @Schema(description = "Court the match is played on (none if the tournament has no courts)")
+    private Court court;
+
     @Schema(description = "Score of the match", example = "6-4,3-6,7-5")
     private String score;
 
+    @Convert(converter = MatchScoreConverter.class)
+    @Column(name = "score_data", length = MatchScore.ENCODED_LENGTH)
+    @Schema(hidden = true)
+    private MatchScore matchScore;
+
     @Column(name = "start_time")
     @Schema(description = "Start time of the match", example = "2025-05-01T10:00:00")
     private LocalDateTime startTime;
@@ -61,6 +78,10 @@ public class TennisMatch {
         return id;
     }
 
+    public void setId(Long id) {
+        this.id = id;
+    }
+
     public Tournament getTournament() {
         return tournament;
     }
@@ -93,6 +114,14 @@ public class TennisMatch {
         this.referee = referee;
     }
 
+    public Court getCourt() {
+        return court;
+    }
+
+    public void setCourt(Court court) {
+        this.court = court;
+    }
+
     public String getScore() {
         return score;
     }
@@ -101,6 +130,25 @@ public class TennisMatch {
         this.score = score;
     }
 
+    /**
+     * The structured score, or null while none has been recorded.
+     */
+    public MatchScore getMatchScore() {
+        return matchScore;
+    }
+
+    /**
+     * Records the score; the text column keeps its normalized form for display and exports.
+     */
+    public void setMatchScore(MatchScore matchScore) {
+        this.matchScore = matchScore;
+        this.score = matchScore != null ? matchScore.toString() : "";
+    }
+
+    public boolean hasScore() {
+        return matchScore != null && !matchScore.isEmpty();
+    }
+
     public LocalDateTime getStartTime() {
         return startTime;
     }
@@ -2,12 +2,17 @@ package org.example.tennistournament.model;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
+import java.time.LocalDateTime;
 
 /**
  * Token entity representing a JWT token issued to a user.
  */
 @Entity
-@Table(name = "token")
+@Table(
+        name = "token",
+        uniqueConstraints = @UniqueConstraint(name = "uk_token_hash", columnNames = "token_hash"),
+        indexes = @Index(name = "idx_token_family", columnList = "family_id")
+)
 @Schema(description = "Token entity representing a JWT token issued to a user")
 public class Token {
 
@@ -16,8 +21,23 @@ public class Token {
     @Schema(description = "Unique identifier of the token", example = "100")
     private Long id;
 
-    @Schema(description = "JWT token string", example = "eyJhbGciOiJIUzI1NiJ9...")
-    private String token;
+    // only the SHA-256 digest of the JWT is stored: fixed width, indexed, useless if leaked
+    @Column(name = "token_hash", length = 64)
+    @Schema(description = "Hex-encoded SHA-256 digest of the JWT", example = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08")
+    private String tokenHash;
+
+    @Column(name = "jti", length = 36)
+    @Schema(description = "JWT id (jti claim) of the token", example = "3f6c1c1e-8d1a-4c55-9a57-3cbe0b4d4a11")
+    private String tokenId;
+
+    @Column(name = "expires_at")
+    @Schema(description = "Moment the token expires", example = "2025-05-01T12:00:00")
+    private LocalDateTime expiresAt;
+
+    // one login session: its refresh row and (stateful mode) its access row are rotated in place
+    @Column(name = "family_id", length = 36)
+    @Schema(description = "Refresh-token family (login session) the token belongs to", example = "5b1e2a8c-0f4d-4c3e-9a57-7d2b6e1f0c44")
+    private String familyId;
 
     @Enumerated(EnumType.STRING)
     @Schema(description = "Type of token (e.g. BEARER)", example = "BEARER")
@@ -39,9 +59,9 @@ public class Token {
     }
 
     // All-argument constructor
-    public Token(Long id, String token, TokenType tokenType, boolean revoked, boolean expired, User user) {
+    public Token(Long id, String tokenHash, TokenType tokenType, boolean revoked, boolean expired, User user) {
         this.id = id;
-        this.token = token;
+        this.tokenHash = tokenHash;
         this.tokenType = tokenType;
         this.revoked = revoked;
         this.expired = expired;
@@ -57,11 +77,32 @@ public class Token {
         this.id = id;
     }
 
-    public String getToken() {
-        return token;
+    public String getTokenHash() {
+        return tokenHash;
+    }
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+    public void setTokenId(String tokenId) {
+        this.tokenId = tokenId;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public String getFamilyId() {
+        return familyId;
     }
-    public void setToken(String token) {
-        this.token = token;
+    public void setFamilyId(String familyId) {
+        this.familyId = familyId;
     }
 
     public TokenType getTokenType() {
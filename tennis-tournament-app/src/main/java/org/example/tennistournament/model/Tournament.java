@@ -4,7 +4,9 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Entity
 @Schema(description = "Tournament entity representing a tennis tournament")
@@ -40,10 +42,11 @@ public class Tournament {
     @JoinTable(
             name = "tournament_players",
             joinColumns = @JoinColumn(name = "tournament_id"),
-            inverseJoinColumns = @JoinColumn(name = "user_id")
+            inverseJoinColumns = @JoinColumn(name = "user_id"),
+            indexes = @Index(name = "idx_tournament_players_user", columnList = "user_id")
     )
-    @Schema(description = "List of players registered for the tournament")
-    private List<User> players = new ArrayList<>();
+    @Schema(description = "Players registered for the tournament")
+    private Set<User> players = new HashSet<>();
 
     @OneToMany(mappedBy = "tournament", cascade = CascadeType.ALL)
     @Schema(description = "List of tennis matches in the tournament")
@@ -68,7 +71,7 @@ public class Tournament {
         return endDate;
     }
 
-    public List<User> getPlayers() {
+    public Set<User> getPlayers() {
         return players;
     }
 
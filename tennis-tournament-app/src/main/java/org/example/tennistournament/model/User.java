@@ -43,6 +43,11 @@ public class User implements UserDetails {
     @Schema(description = "Role of the user", example = "PLAYER")
     private Role role;
 
+    // bumped by a bulk update to revoke every token of the user at once, never by entity saves
+    @Column(name = "token_generation", nullable = false, updatable = false)
+    @Schema(description = "Generation of the user's tokens; tokens of an older generation are revoked")
+    private long tokenGeneration;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     @Schema(description = "List of tokens associated with the user")
     private java.util.List<Token> tokens;
@@ -104,6 +109,14 @@ public class User implements UserDetails {
         this.role = role;
     }
 
+    public long getTokenGeneration() {
+        return tokenGeneration;
+    }
+
+    public void setTokenGeneration(long tokenGeneration) {
+        this.tokenGeneration = tokenGeneration;
+    }
+
     public java.util.List<Token> getTokens() {
         return tokens;
     }
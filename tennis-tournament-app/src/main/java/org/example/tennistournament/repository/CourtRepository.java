@@ -0,0 +1,26 @@
+package org.example.tennistournament.repository;
+
+import jakarta.persistence.LockModeType;
+import org.example.tennistournament.model.Court;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CourtRepository extends JpaRepository<Court, Long> {
+
+    List<Court> findByTournamentIdOrderById(Long tournamentId);
+
+    boolean existsByTournamentIdAndName(Long tournamentId, String name);
+
+    /**
+     * Courts of the tournament, row-locked in id order; held while their schedules are changed.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Court c WHERE c.tournament.id = :tournamentId ORDER BY c.id")
+    List<Court> lockAllByTournamentId(@Param("tournamentId") Long tournamentId);
+}
@@ -0,0 +1,29 @@
+package org.example.tennistournament.repository;
+
+import org.example.tennistournament.model.CourtSchedule;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface CourtScheduleRepository extends JpaRepository<CourtSchedule, Long> {
+
+    @Query("SELECT s FROM CourtSchedule s WHERE s.court.tournament.id = :tournamentId AND s.date = :date")
+    List<CourtSchedule> findByTournamentIdAndDate(@Param("tournamentId") Long tournamentId,
+                                                  @Param("date") LocalDate date);
+
+    /**
+     * The day's schedules, row-locked. Being a locking read, it sees the bookings committed by
+     * writers that held the court locks before us, not the transaction's older snapshot.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM CourtSchedule s WHERE s.court.tournament.id = :tournamentId AND s.date = :date ORDER BY s.id")
+    List<CourtSchedule> lockByTournamentIdAndDate(@Param("tournamentId") Long tournamentId,
+                                                  @Param("date") LocalDate date);
+}
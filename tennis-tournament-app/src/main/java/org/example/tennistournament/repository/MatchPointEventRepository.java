@@ -0,0 +1,24 @@
+package org.example.tennistournament.repository;
+
+import org.example.tennistournament.model.MatchPointEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MatchPointEventRepository extends JpaRepository<MatchPointEvent, Long> {
+
+    @Query("SELECT e.kind FROM MatchPointEvent e WHERE e.matchId = :matchId ORDER BY e.seq")
+    List<Byte> findKindsByMatchId(@Param("matchId") Long matchId);
+
+    long countByMatchId(Long matchId);
+
+    @Modifying
+    @Query("DELETE FROM MatchPointEvent e WHERE e.matchId IN :matchIds")
+    void deleteByMatchIdIn(@Param("matchIds") Collection<Long> matchIds);
+}
@@ -0,0 +1,25 @@
+package org.example.tennistournament.repository;
+
+import org.example.tennistournament.model.PlayerStanding;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PlayerStandingRepository extends JpaRepository<PlayerStanding, Long> {
+
+    List<PlayerStanding> findByTournamentId(Long tournamentId);
+
+    List<PlayerStanding> findByPlayerId(Long playerId);
+
+    List<PlayerStanding> findByTournamentIdAndPlayerIdIn(Long tournamentId, Collection<Long> playerIds);
+
+    @Modifying
+    @Query("DELETE FROM PlayerStanding s WHERE s.playerId = :playerId")
+    void deleteByPlayerId(@Param("playerId") Long playerId);
+}
@@ -1,36 +1,194 @@
 package org.example.tennistournament.repository;
 
 import org.example.tennistournament.model.TennisMatch;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 @Repository
 public interface TennisMatchRepository extends JpaRepository<TennisMatch, Long> {
 
     List<TennisMatch> findByTournamentId(Long tournamentId);
+    boolean existsByTournamentId(Long tournamentId);
     List<TennisMatch> findByPlayer1Id(Long player1Id);
     List<TennisMatch> findByPlayer2Id(Long player2Id);
     List<TennisMatch> findByRefereeId(Long refereeId);
 
     @Query("""
        SELECT m FROM TennisMatch m
-       WHERE (
-         m.player1.id IN :participantIds
-         OR m.player2.id IN :participantIds
-         OR m.referee.id IN :participantIds
-       )
-       AND (
-         m.startTime < :proposedEnd
-         AND m.endTime > :proposedStart
-       )
+       WHERE m.tournament.id = :tournamentId AND m.startTime >= :from AND m.startTime < :to
+       ORDER BY m.startTime, m.id
     """)
+    List<TennisMatch> findByTournamentStartingBetween(@Param("tournamentId") Long tournamentId,
+                                                      @Param("from") LocalDateTime from,
+                                                      @Param("to") LocalDateTime to);
+
+    /**
+     * Matches of any of the participants overlapping [proposedStart, proposedEnd).
+     * One branch per participant column, so each is a range scan on its (column, start_time, end_time)
+     * index instead of an OR that no single index can serve.
+     */
+    @Query(value = """
+       SELECT m.* FROM tennis_match m
+       WHERE m.id IN (
+         SELECT u.id FROM (
+           SELECT a.id FROM tennis_match a
+            WHERE a.player1_id IN (:participantIds) AND a.start_time < :proposedEnd AND a.end_time > :proposedStart
+           UNION ALL
+           SELECT b.id FROM tennis_match b
+            WHERE b.player2_id IN (:participantIds) AND b.start_time < :proposedEnd AND b.end_time > :proposedStart
+           UNION ALL
+           SELECT c.id FROM tennis_match c
+            WHERE c.referee_id IN (:participantIds) AND c.start_time < :proposedEnd AND c.end_time > :proposedStart
+         ) u
+       )
+    """, nativeQuery = true)
     List<TennisMatch> findOverlappingMatches(
-            List<Long> participantIds,
-            LocalDateTime proposedStart,
-            LocalDateTime proposedEnd
+            @Param("participantIds") List<Long> participantIds,
+            @Param("proposedStart") LocalDateTime proposedStart,
+            @Param("proposedEnd") LocalDateTime proposedEnd
     );
+
+    /**
+     * Ids of the matches of any of the participants overlapping [proposedStart, proposedEnd), read
+     * with a locking read ({@code FOR SHARE} on MySQL). Unlike a plain SELECT under REPEATABLE READ
+     * it sees matches committed after the transaction's snapshot was taken, so run after
+     * {@code ParticipantLocks} it sees everything other writers of these participants committed,
+     * on any instance. One locking query per participant column: a locking read does not extend
+     * into subqueries, so the UNION ALL form cannot be used.
+     */
+    default List<Long> lockOverlappingMatchIds(Collection<Long> participantIds,
+                                              LocalDateTime proposedStart,
+                                              LocalDateTime proposedEnd) {
+        Set<Long> ids = new TreeSet<>(lockOverlappingIdsAsPlayer1(participantIds, proposedStart, proposedEnd));
+        ids.addAll(lockOverlappingIdsAsPlayer2(participantIds, proposedStart, proposedEnd));
+        ids.addAll(lockOverlappingIdsAsReferee(participantIds, proposedStart, proposedEnd));
+        return new ArrayList<>(ids);
+    }
+
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("""
+       SELECT m.id FROM TennisMatch m
+       WHERE m.player1.id IN :participantIds AND m.startTime < :proposedEnd AND m.endTime > :proposedStart
+    """)
+    List<Long> lockOverlappingIdsAsPlayer1(@Param("participantIds") Collection<Long> participantIds,
+                                           @Param("proposedStart") LocalDateTime proposedStart,
+                                           @Param("proposedEnd") LocalDateTime proposedEnd);
+
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("""
+       SELECT m.id FROM TennisMatch m
+       WHERE m.player2.id IN :participantIds AND m.startTime < :proposedEnd AND m.endTime > :proposedStart
+    """)
+    List<Long> lockOverlappingIdsAsPlayer2(@Param("participantIds") Collection<Long> participantIds,
+                                           @Param("proposedStart") LocalDateTime proposedStart,
+                                           @Param("proposedEnd") LocalDateTime proposedEnd);
+
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("""
+       SELECT m.id FROM TennisMatch m
+       WHERE m.referee.id IN :participantIds AND m.startTime < :proposedEnd AND m.endTime > :proposedStart
+    """)
+    List<Long> lockOverlappingIdsAsReferee(@Param("participantIds") Collection<Long> participantIds,
+                                           @Param("proposedStart") LocalDateTime proposedStart,
+                                           @Param("proposedEnd") LocalDateTime proposedEnd);
+
+    /**
+     * Time slot of a match and the three users it keeps busy.
+     */
+    interface MatchInterval {
+        Long getId();
+        Long getPlayer1Id();
+        Long getPlayer2Id();
+        Long getRefereeId();
+        LocalDateTime getStartTime();
+        LocalDateTime getEndTime();
+    }
+
+    /**
+     * Intervals of every match of the participants, each match once. Built like
+     * {@link #findOverlappingMatches}: one branch per participant column, so each is served by
+     * that column's index.
+     */
+    @Query(value = """
+       SELECT m.id AS id, m.player1_id AS player1Id, m.player2_id AS player2Id, m.referee_id AS refereeId,
+              m.start_time AS startTime, m.end_time AS endTime
+       FROM tennis_match m
+       WHERE m.id IN (
+         SELECT u.id FROM (
+           SELECT a.id FROM tennis_match a WHERE a.player1_id IN (:participantIds)
+           UNION ALL
+           SELECT b.id FROM tennis_match b WHERE b.player2_id IN (:participantIds)
+           UNION ALL
+           SELECT c.id FROM tennis_match c WHERE c.referee_id IN (:participantIds)
+         ) u
+       )
+    """, nativeQuery = true)
+    List<MatchInterval> findIntervalsByParticipants(@Param("participantIds") Collection<Long> participantIds);
+
+    /**
+     * {@link #findIntervalsByParticipants} as a locking read, so it sees the latest committed
+     * matches rather than the transaction's snapshot (see {@link #lockOverlappingMatchIds}).
+     */
+    default List<MatchInterval> lockIntervalsByParticipants(Collection<Long> participantIds) {
+        Map<Long, MatchInterval> byId = new LinkedHashMap<>();
+        lockIntervalsAsPlayer1(participantIds).forEach(m -> byId.putIfAbsent(m.getId(), m));
+        lockIntervalsAsPlayer2(participantIds).forEach(m -> byId.putIfAbsent(m.getId(), m));
+        lockIntervalsAsReferee(participantIds).forEach(m -> byId.putIfAbsent(m.getId(), m));
+        return new ArrayList<>(byId.values());
+    }
+
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("""
+       SELECT m.id AS id, m.player1.id AS player1Id, m.player2.id AS player2Id, m.referee.id AS refereeId,
+              m.startTime AS startTime, m.endTime AS endTime
+       FROM TennisMatch m
+       WHERE m.player1.id IN :participantIds
+    """)
+    List<MatchInterval> lockIntervalsAsPlayer1(@Param("participantIds") Collection<Long> participantIds);
+
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("""
+       SELECT m.id AS id, m.player1.id AS player1Id, m.player2.id AS player2Id, m.referee.id AS refereeId,
+              m.startTime AS startTime, m.endTime AS endTime
+       FROM TennisMatch m
+       WHERE m.player2.id IN :participantIds
+    """)
+    List<MatchInterval> lockIntervalsAsPlayer2(@Param("participantIds") Collection<Long> participantIds);
+
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("""
+       SELECT m.id AS id, m.player1.id AS player1Id, m.player2.id AS player2Id, m.referee.id AS refereeId,
+              m.startTime AS startTime, m.endTime AS endTime
+       FROM TennisMatch m
+       WHERE m.referee.id IN :participantIds
+    """)
+    List<MatchInterval> lockIntervalsAsReferee(@Param("participantIds") Collection<Long> participantIds);
+
+    @Query("""
+       SELECT m.id AS id, m.player1.id AS player1Id, m.player2.id AS player2Id, m.referee.id AS refereeId,
+              m.startTime AS startTime, m.endTime AS endTime
+       FROM TennisMatch m
+       WHERE m.tournament.id = :tournamentId
+    """)
+    List<MatchInterval> findIntervalsByTournament(@Param("tournamentId") Long tournamentId);
+
+    @Query("""
+       SELECT m.player1.id, m.player2.id, m.referee.id
+       FROM TennisMatch m
+       WHERE m.tournament.id = :tournamentId
+    """)
+    List<Object[]> findParticipantIdsByTournament(@Param("tournamentId") Long tournamentId);
 }
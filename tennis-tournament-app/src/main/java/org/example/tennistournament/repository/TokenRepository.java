@@ -1,15 +1,66 @@
 package org.example.tennistournament.repository;
 
 import org.example.tennistournament.model.Token;
+import org.example.tennistournament.model.TokenType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface TokenRepository extends JpaRepository<Token, Long> {
 
     @Query("SELECT t FROM Token t JOIN t.user u WHERE u.id = :userId AND t.expired = false AND t.revoked = false")
     List<Token> findAllValidTokenByUser(@Param("userId") Long userId);
 
-    List<Token> findAllByToken(@Param("token") String token);
+    Optional<Token> findByTokenHash(@Param("tokenHash") String tokenHash);
+
+    @Query("SELECT t FROM Token t WHERE t.revoked = true AND (t.expiresAt IS NULL OR t.expiresAt > :now)")
+    List<Token> findAllRevokedNotExpired(@Param("now") LocalDateTime now);
+
+    List<Token> findAllByFamilyIdAndRevokedFalse(@Param("familyId") String familyId);
+
+    /**
+     * Rotates a refresh token in place: the row is only updated if it still holds the presented
+     * token and is live, so 0 means the token was already rotated out (reuse) or revoked.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+       UPDATE Token t
+       SET t.tokenHash = :newHash, t.tokenId = :newTokenId, t.expiresAt = :expiresAt, t.familyId = :familyId
+       WHERE t.tokenHash = :oldHash AND t.tokenType = :type
+         AND t.revoked = false AND t.expired = false
+    """)
+    int rotate(@Param("oldHash") String oldHash,
+               @Param("type") TokenType type,
+               @Param("familyId") String familyId,
+               @Param("newHash") String newHash,
+               @Param("newTokenId") String newTokenId,
+               @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Query("SELECT MIN(t.id) FROM Token t")
+    Long findMinId();
+
+    @Query("SELECT MAX(t.id) FROM Token t")
+    Long findMaxId();
+
+    /**
+     * Deletes tokens in [fromId, toId) that expired before the cutoff, plus flagged rows whose
+     * expiry is unknown. Revoked tokens that have not expired yet are kept for the revocation index.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+       DELETE FROM Token t
+       WHERE t.id >= :fromId AND t.id < :toId
+         AND (t.expiresAt < :cutoff
+              OR (t.expiresAt IS NULL AND (t.revoked = true OR t.expired = true)))
+    """)
+    int deleteExpiredInRange(@Param("fromId") Long fromId,
+                             @Param("toId") Long toId,
+                             @Param("cutoff") LocalDateTime cutoff);
 }
@@ -2,10 +2,12 @@ package org.example.tennistournament.repository;
 
 import org.example.tennistournament.model.Tournament;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -22,4 +24,28 @@ public interface TournamentRepository extends JpaRepository<Tournament, Long> {
     @Query("SELECT t FROM Tournament t JOIN t.players p WHERE p.id = :playerId")
     List<Tournament> findAllByPlayer(@Param("playerId") Long playerId);
 
+    @Query("SELECT p.id FROM Tournament t JOIN t.players p WHERE t.id = :tournamentId")
+    List<Long> findPlayerIds(@Param("tournamentId") Long tournamentId);
+
+    // roster checks and changes below touch single join-table rows, never the whole roster
+
+    @Query("SELECT p.id FROM Tournament t JOIN t.players p WHERE t.id = :tournamentId AND p.id IN :playerIds")
+    List<Long> findRegisteredPlayerIds(@Param("tournamentId") Long tournamentId,
+                                       @Param("playerIds") Collection<Long> playerIds);
+
+    @Query("SELECT COUNT(p) > 0 FROM Tournament t JOIN t.players p WHERE t.id = :tournamentId AND p.id = :playerId")
+    boolean isPlayerRegistered(@Param("tournamentId") Long tournamentId, @Param("playerId") Long playerId);
+
+    @Query("SELECT COUNT(p) FROM Tournament t JOIN t.players p WHERE t.id = :tournamentId")
+    long countPlayers(@Param("tournamentId") Long tournamentId);
+
+    @Modifying
+    @Query(value = "INSERT INTO tournament_players (tournament_id, user_id) VALUES (:tournamentId, :playerId)",
+            nativeQuery = true)
+    int addPlayer(@Param("tournamentId") Long tournamentId, @Param("playerId") Long playerId);
+
+    @Modifying
+    @Query(value = "DELETE FROM tournament_players WHERE user_id = :playerId", nativeQuery = true)
+    int removePlayerFromAll(@Param("playerId") Long playerId);
+
 }
@@ -1,10 +1,17 @@
 package org.example.tennistournament.repository;
 
 import org.example.tennistournament.model.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import org.example.tennistournament.model.Role;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
@@ -14,4 +21,44 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
     List<User> findAllByRole(Role role);
+
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * Row locks on the given users, taken in id order so concurrent lockers cannot deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id IN :ids ORDER BY u.id")
+    List<User> lockAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    Optional<AuthState> findAuthStateById(Long id);
+
+    @Query("SELECT u.tokenGeneration FROM User u WHERE u.id = :id")
+    Optional<Long> findTokenGenerationById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.tokenGeneration = u.tokenGeneration + 1 WHERE u.id = :id")
+    int incrementTokenGeneration(@Param("id") Long id);
+
+    /**
+     * Replaces the stored hash without touching the version, so a transparent re-hash on login
+     * does not invalidate the user's tokens.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
+
+    /**
+     * The parts of a user that decide whether one of its tokens is still accepted.
+     */
+    interface AuthState {
+        Long getVersion();
+        long getTokenGeneration();
+    }
 }
@@ -0,0 +1,93 @@
+package org.example.tennistournament.scheduler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.tennistournament.repository.TokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Compacts the token table by deleting tokens that expired more than the retention window ago.
+ * Deletes walk the primary key in bounded id ranges, each in its own short transaction, with
+ * a pause in between so the job never holds long locks on the table.
+ */
+@Component
+public class TokenPurgeScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenPurgeScheduler.class);
+
+    private final TokenRepository tokenRepository;
+    private final Counter purgedCounter;
+    private final Timer batchTimer;
+
+    @Value("${application.security.token-purge.enabled:true}")
+    private boolean enabled;
+
+    @Value("${application.security.token-purge.retention:P7D}")
+    private Duration retention;
+
+    @Value("${application.security.token-purge.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${application.security.token-purge.pause-between-batches:PT0.2S}")
+    private Duration pauseBetweenBatches;
+
+    public TokenPurgeScheduler(TokenRepository tokenRepository, MeterRegistry meterRegistry) {
+        this.tokenRepository = tokenRepository;
+        this.purgedCounter = Counter.builder("tokens.purged")
+                .description("Token rows deleted by the purge job")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("tokens.purge.batch")
+                .description("Time spent deleting one id range of tokens")
+                .register(meterRegistry);
+    }
+
+    // Runs every hour by default
+    @Scheduled(cron = "${application.security.token-purge.cron:0 15 * * * *}")
+    public void purgeExpiredTokens() {
+        if (!enabled) {
+            return;
+        }
+        Long minId = tokenRepository.findMinId();
+        Long maxId = tokenRepository.findMaxId();
+        if (minId == null || maxId == null) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        long total = 0;
+        for (long fromId = minId; fromId <= maxId; fromId += batchSize) {
+            long toId = fromId + batchSize;
+            long from = fromId;
+            Integer deleted = batchTimer.record(
+                    () -> tokenRepository.deleteExpiredInRange(from, toId, cutoff));
+            if (deleted != null && deleted > 0) {
+                purgedCounter.increment(deleted);
+                total += deleted;
+                // only throttle after ranges that actually took locks
+                if (!pause()) {
+                    break;
+                }
+            }
+        }
+        if (total > 0) {
+            log.info("Purged {} tokens expired before {}", total, cutoff);
+        }
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseBetweenBatches.toMillis());
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
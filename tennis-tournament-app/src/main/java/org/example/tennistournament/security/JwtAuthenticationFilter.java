@@ -4,7 +4,7 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.example.tennistournament.repository.TokenRepository;
+import org.example.tennistournament.model.Role;
 import org.example.tennistournament.repository.UserRepository;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -21,14 +21,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserRepository userRepository;
-    private final TokenRepository tokenRepository;
+    private final RevokedTokenIndex revokedTokenIndex;
+    private final UserAuthStateCache userAuthStateCache;
 
     public JwtAuthenticationFilter(JwtService jwtService,
                                    UserRepository userRepository,
-                                   TokenRepository tokenRepository) {
+                                   RevokedTokenIndex revokedTokenIndex,
+                                   UserAuthStateCache userAuthStateCache) {
         this.jwtService = jwtService;
         this.userRepository = userRepository;
-        this.tokenRepository = tokenRepository;
+        this.revokedTokenIndex = revokedTokenIndex;
+        this.userAuthStateCache = userAuthStateCache;
     }
 
     @Override
@@ -55,21 +58,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         String jwt = authHeader.substring(7);
-        String username = jwtService.extractUsername(jwt);
+        ParsedToken parsedToken = jwtService.parseToken(jwt);
+        String username = parsedToken.getSubject();
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails =
-                    userRepository.findByUsername(username).orElse(null);
+        // refresh tokens are only good for /api/users/refresh-token
+        if (username != null && !parsedToken.isRefreshToken()
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = resolvePrincipal(parsedToken);
 
-            boolean tokenIsValid = false;
-            if (userDetails != null) {
-                var matchingTokens = tokenRepository.findAllByToken(jwt);
+            // revocation is answered in-process; the token table is not queried per request
+            boolean tokenIsValid = !revokedTokenIndex.isRevoked(parsedToken.getTokenId());
 
-                tokenIsValid = matchingTokens.stream()
-                        .anyMatch(t -> !t.isExpired() && !t.isRevoked());
-            }
-
-            if (userDetails != null && jwtService.isTokenValid(jwt, userDetails) && tokenIsValid) {
+            if (userDetails != null && jwtService.isTokenValid(parsedToken, userDetails) && tokenIsValid) {
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
                                 userDetails,
@@ -84,4 +84,33 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Builds the principal straight from the verified claims. Tokens minted before the
+     * claims existed fall back to loading the user (stateful mode only).
+     */
+    private UserDetails resolvePrincipal(ParsedToken token) {
+        if (!token.hasPrincipalClaims()) {
+            // stateless mode never touches the database on the request path
+            return jwtService.isStateless()
+                    ? null
+                    : userRepository.findByUsername(token.getSubject()).orElse(null);
+        }
+        boolean current = jwtService.isStateless()
+                ? !userAuthStateCache.isKnownStale(
+                        token.getUserId(), token.getUserVersion(), token.getTokenGeneration())
+                : userAuthStateCache.isCurrent(
+                        token.getUserId(), token.getUserVersion(), token.getTokenGeneration());
+        if (!current) {
+            return null;
+        }
+        Role role = Role.valueOf(token.getRole());
+        return new CustomUserDetails(
+                token.getUserId(),
+                token.getSubject(),
+                null,
+                role.getAuthorities(),
+                true
+        );
+    }
 }
@@ -1,10 +1,13 @@
 package org.example.tennistournament.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.example.tennistournament.model.User;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -18,6 +21,16 @@ import java.util.function.Function;
 @Service
 public class JwtService {
 
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_USER_VERSION = "ver";
+    public static final String CLAIM_TOKEN_GENERATION = "gen";
+    public static final String CLAIM_FAMILY = "fam";
+    public static final String CLAIM_TOKEN_TYPE = "typ";
+
+    public static final String TYPE_ACCESS = "access";
+    public static final String TYPE_REFRESH = "refresh";
+
     @Value("${application.security.jwt.secret-key}")
     private String secretKey;
 
@@ -27,9 +40,36 @@ public class JwtService {
     @Value("${application.security.jwt.refresh-token.expiration}")
     private long refreshExpiration;
 
-    private Key getSignInKey() {
+    // stateful: access tokens are persisted and checked against the user's current state;
+    // stateless: access tokens are accepted on signature, expiry and the in-process revocation index
+    @Value("${application.security.jwt.mode:stateful}")
+    private String mode;
+
+    // decoded once; both Key and JwtParser are immutable and thread-safe
+    private Key signInKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
         byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        this.signInKey = Keys.hmacShaKeyFor(keyBytes);
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signInKey)
+                .build();
+    }
+
+    /**
+     * Verifies the signature and expiry of the token exactly once and returns its claims.
+     * Throws a {@link io.jsonwebtoken.JwtException} if the token is malformed, tampered with or expired.
+     */
+    public ParsedToken parseToken(String token) {
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        return new ParsedToken(token, claims);
+    }
+
+
+    public boolean isStateless() {
+        return "stateless".equalsIgnoreCase(mode);
     }
 
 
@@ -39,17 +79,12 @@ public class JwtService {
 
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(parseToken(token).getClaims());
     }
 
 
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        return generateToken(principalClaims(userDetails), userDetails);
     }
 
 
@@ -59,34 +94,63 @@ public class JwtService {
 
 
     public String generateRefreshToken(UserDetails userDetails) {
-        return buildToken(new HashMap<>(), userDetails, refreshExpiration);
+        return buildToken(principalClaims(userDetails), userDetails, refreshExpiration);
+    }
+
+    /**
+     * Access token bound to a refresh-token family (one login session).
+     */
+    public String generateToken(UserDetails userDetails, String familyId) {
+        return buildToken(sessionClaims(userDetails, familyId, TYPE_ACCESS), userDetails, jwtExpiration);
+    }
+
+    /**
+     * Refresh token of the given family; each refresh rotates it in place.
+     */
+    public String generateRefreshToken(UserDetails userDetails, String familyId) {
+        return buildToken(sessionClaims(userDetails, familyId, TYPE_REFRESH), userDetails, refreshExpiration);
+    }
+
+    private Map<String, Object> sessionClaims(UserDetails userDetails, String familyId, String type) {
+        Map<String, Object> claims = principalClaims(userDetails);
+        claims.put(CLAIM_FAMILY, familyId);
+        claims.put(CLAIM_TOKEN_TYPE, type);
+        return claims;
+    }
+
+    /**
+     * Claims that let the authentication filter rebuild the principal without loading the user.
+     */
+    private Map<String, Object> principalClaims(UserDetails userDetails) {
+        Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof User user) {
+            claims.put(CLAIM_USER_ID, user.getId());
+            claims.put(CLAIM_ROLE, user.getRole().name());
+            claims.put(CLAIM_USER_VERSION, user.getVersion() != null ? user.getVersion() : 0L);
+            claims.put(CLAIM_TOKEN_GENERATION, user.getTokenGeneration());
+        }
+        return claims;
     }
 
 
     private String buildToken(Map<String, Object> extraClaims, UserDetails userDetails, long expiration) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .setClaims(extraClaims)
                 .setId(UUID.randomUUID().toString()) // add jti
                 .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + expiration))
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(parseToken(token), userDetails);
     }
 
-    private boolean isTokenExpired(String token) {
-        Date expiration = Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getExpiration();
-        return expiration.before(new Date());
+    public boolean isTokenValid(ParsedToken token, UserDetails userDetails) {
+        return token.getSubject().equals(userDetails.getUsername()) && !token.isExpired();
     }
 }
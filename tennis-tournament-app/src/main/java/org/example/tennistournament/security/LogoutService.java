@@ -2,19 +2,38 @@ package org.example.tennistournament.security;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import io.jsonwebtoken.JwtException;
+import org.example.tennistournament.builder.TokenBuilder;
+import org.example.tennistournament.model.Token;
+import org.example.tennistournament.model.TokenType;
 import org.example.tennistournament.repository.TokenRepository;
+import org.example.tennistournament.repository.UserRepository;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.logout.LogoutHandler;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
 @Service
 public class LogoutService implements LogoutHandler {
 
     private final TokenRepository tokenRepository;
+    private final RevokedTokenIndex revokedTokenIndex;
+    private final JwtService jwtService;
+    private final UserRepository userRepository;
 
-    public LogoutService(TokenRepository tokenRepository) {
+    public LogoutService(TokenRepository tokenRepository,
+                         RevokedTokenIndex revokedTokenIndex,
+                         JwtService jwtService,
+                         UserRepository userRepository) {
         this.tokenRepository = tokenRepository;
+        this.revokedTokenIndex = revokedTokenIndex;
+        this.jwtService = jwtService;
+        this.userRepository = userRepository;
     }
 
     @Override
@@ -22,15 +41,73 @@ public class LogoutService implements LogoutHandler {
         final String authHeader = request.getHeader("Authorization");
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String jwt = authHeader.substring(7);
+            String tokenHash = TokenDigest.sha256Hex(jwt);
+            ParsedToken parsed = tryParse(jwt);
 
-            var matchingTokens = tokenRepository.findAllByToken(jwt);
-
-            matchingTokens.forEach(storedToken -> {
+            Optional<Token> stored = tokenRepository.findByTokenHash(tokenHash);
+            if (stored.isPresent()) {
+                Token storedToken = stored.get();
                 storedToken.setExpired(true);
                 storedToken.setRevoked(true);
                 tokenRepository.save(storedToken);
-            });
+                revokedTokenIndex.revoke(storedToken);
+            } else if (jwtService.isStateless() && parsed != null) {
+                // access tokens have no row in stateless mode: write a revoked marker so the
+                // revocation survives a restart (the index is warmed from these rows)
+                revokeUnsaved(parsed, tokenHash);
+            }
+            // logging out ends the whole session, including its refresh token
+            if (parsed != null && parsed.getFamilyId() != null) {
+                revokeFamily(parsed.getFamilyId());
+            }
         }
         SecurityContextHolder.clearContext();
     }
+
+    /**
+     * Revokes every live token of a refresh-token family (one login session).
+     */
+    public void revokeFamily(String familyId) {
+        revokeTokens(tokenRepository.findAllByFamilyIdAndRevokedFalse(familyId));
+    }
+
+    /**
+     * Revokes the given tokens, in the table and in the in-process index.
+     */
+    public void revokeTokens(List<Token> tokens) {
+        for (Token token : tokens) {
+            token.setExpired(true);
+            token.setRevoked(true);
+        }
+        tokenRepository.saveAll(tokens);
+        tokens.forEach(revokedTokenIndex::revoke);
+    }
+
+    private ParsedToken tryParse(String jwt) {
+        try {
+            return jwtService.parseToken(jwt);
+        } catch (JwtException ex) {
+            return null; // invalid or already expired: nothing left to revoke beyond the row
+        }
+    }
+
+    private void revokeUnsaved(ParsedToken parsed, String tokenHash) {
+        if (parsed.getUserId() == null) {
+            return;
+        }
+        userRepository.findById(parsed.getUserId()).ifPresent(user -> {
+            Token marker = TokenBuilder.builder()
+                    .user(user)
+                    .tokenHash(tokenHash)
+                    .tokenId(parsed.getTokenId())
+                    .expiresAt(LocalDateTime.ofInstant(parsed.getExpiration().toInstant(), ZoneId.systemDefault()))
+                    .familyId(parsed.getFamilyId())
+                    .tokenType(TokenType.ACCESS)
+                    .expired(true)
+                    .revoked(true)
+                    .build();
+            tokenRepository.save(marker);
+            revokedTokenIndex.revoke(marker);
+        });
+    }
 }
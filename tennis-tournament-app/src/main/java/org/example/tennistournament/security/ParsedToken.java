@@ -0,0 +1,95 @@
+package org.example.tennistournament.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+/**
+ * A JWT whose signature has already been verified by {@link JwtService#parseToken(String)}.
+ * Holds the decoded claims so callers can read subject, expiry, jti and custom
+ * claims without parsing and HMAC-verifying the same token again.
+ */
+public final class ParsedToken {
+
+    private final String token;
+    private final Claims claims;
+
+    ParsedToken(String token, Claims claims) {
+        this.token = token;
+        this.claims = claims;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public String getSubject() {
+        return claims.getSubject();
+    }
+
+    public String getTokenId() {
+        return claims.getId();
+    }
+
+    public Date getIssuedAt() {
+        return claims.getIssuedAt();
+    }
+
+    public Date getExpiration() {
+        return claims.getExpiration();
+    }
+
+    public boolean isExpired() {
+        Date expiration = claims.getExpiration();
+        return expiration != null && expiration.before(new Date());
+    }
+
+    public Long getUserId() {
+        return getNumberClaim(JwtService.CLAIM_USER_ID);
+    }
+
+    public String getRole() {
+        return claims.get(JwtService.CLAIM_ROLE, String.class);
+    }
+
+    public Long getUserVersion() {
+        return getNumberClaim(JwtService.CLAIM_USER_VERSION);
+    }
+
+    public Long getTokenGeneration() {
+        return getNumberClaim(JwtService.CLAIM_TOKEN_GENERATION);
+    }
+
+    /**
+     * True when the token carries everything needed to build the principal without a user lookup.
+     */
+    public boolean hasPrincipalClaims() {
+        return getUserId() != null && getRole() != null && getUserVersion() != null
+                && getTokenGeneration() != null;
+    }
+
+    /**
+     * Refresh-token family (login session) of the token, or null for tokens minted before families.
+     */
+    public String getFamilyId() {
+        return claims.get(JwtService.CLAIM_FAMILY, String.class);
+    }
+
+    public boolean isRefreshToken() {
+        return JwtService.TYPE_REFRESH.equals(claims.get(JwtService.CLAIM_TOKEN_TYPE, String.class));
+    }
+
+    public <T> T getClaim(String name, Class<T> type) {
+        return claims.get(name, type);
+    }
+
+    public Claims getClaims() {
+        return claims;
+    }
+
+    // numeric claims come back as Integer or Long depending on their size
+    private Long getNumberClaim(String name) {
+        Number value = claims.get(name, Number.class);
+        return value != null ? value.longValue() : null;
+    }
+}
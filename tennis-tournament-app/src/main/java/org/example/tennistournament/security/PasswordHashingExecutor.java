@@ -0,0 +1,140 @@
+package org.example.tennistournament.security;
+
+import jakarta.annotation.PreDestroy;
+import org.example.tennistournament.exception.ServiceOverloadedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dedicated, bounded pool for BCrypt work (password verification and hashing).
+ * A login storm can occupy at most {@code threads + queue-capacity} request threads; anything
+ * beyond that is turned away immediately with a {@link ServiceOverloadedException} (503)
+ * instead of starving the other endpoints.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+
+    public PasswordHashingExecutor(PasswordEncoder passwordEncoder,
+                                   @Value("${application.security.login-pool.threads:0}") int threads,
+                                   @Value("${application.security.login-pool.queue-capacity:100}") int queueCapacity,
+                                   @Value("${application.security.login-pool.retry-after:PT2S}") Duration retryAfter) {
+        this.passwordEncoder = passwordEncoder;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "password-hasher-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+    }
+
+    /**
+     * Runs the task on the hashing pool and waits for it. Runtime exceptions thrown by the task
+     * (e.g. BadCredentialsException) are rethrown unchanged.
+     */
+    public <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException ex) {
+            throw new ServiceOverloadedException(
+                    "Too many login requests, please retry shortly", retryAfterSeconds);
+        }
+        return await(future);
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    public String encode(String rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Hashes many passwords in parallel for a bulk import. Each password is its own task and at
+     * most half the pool (at least one thread) hashes import rows at a time, so logins queued
+     * meanwhile wait for one hash, not for the whole import.
+     */
+    public List<String> encodeAll(List<String> rawPasswords) {
+        String[] hashes = new String[rawPasswords.size()];
+        Semaphore inFlight = new Semaphore(getImportParallelism());
+        List<Future<?>> futures = new ArrayList<>(hashes.length);
+        try {
+            for (int i = 0; i < hashes.length; i++) {
+                inFlight.acquire();
+                int index = i;
+                try {
+                    futures.add(executor.submit(() -> {
+                        try {
+                            hashes[index] = passwordEncoder.encode(rawPasswords.get(index));
+                        } finally {
+                            inFlight.release();
+                        }
+                    }));
+                } catch (RejectedExecutionException ex) {
+                    futures.forEach(f -> f.cancel(true));
+                    throw new ServiceOverloadedException(
+                            "Password hashing pool is busy, please retry shortly", retryAfterSeconds);
+                }
+            }
+        } catch (InterruptedException ex) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", ex);
+        }
+        for (Future<?> future : futures) {
+            await(future); // also publishes the task's write to hashes
+        }
+        return Arrays.asList(hashes);
+    }
+
+    private int getImportParallelism() {
+        return Math.max(1, getPoolSize() / 2);
+    }
+
+    public int getPoolSize() {
+        return executor.getMaximumPoolSize();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
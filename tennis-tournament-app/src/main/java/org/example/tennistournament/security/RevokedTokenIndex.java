@@ -0,0 +1,80 @@
+package org.example.tennistournament.security;
+
+import jakarta.annotation.PostConstruct;
+import org.example.tennistournament.model.Token;
+import org.example.tennistournament.repository.TokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process index of revoked JWT ids (jti claim), so the authentication filter can
+ * reject a revoked token without querying the token table.
+ * Entries only live until the token itself expires; after that the signature check
+ * rejects the token anyway.
+ */
+@Component
+@DependsOn("tokenStorageMigration")
+public class RevokedTokenIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(RevokedTokenIndex.class);
+
+    // jti -> expiry in epoch millis
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    private final TokenRepository tokenRepository;
+
+    public RevokedTokenIndex(TokenRepository tokenRepository) {
+        this.tokenRepository = tokenRepository;
+    }
+
+    /**
+     * Warm the index from the token table before the application starts serving requests.
+     */
+    @PostConstruct
+    void warmUp() {
+        tokenRepository.findAllRevokedNotExpired(LocalDateTime.now()).forEach(this::revoke);
+        log.info("Revoked token index warmed with {} entries", revoked.size());
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+        Long expiresAt = revoked.get(tokenId);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    public void revoke(String tokenId, Date expiresAt) {
+        if (tokenId == null || expiresAt == null || expiresAt.getTime() <= System.currentTimeMillis()) {
+            return;
+        }
+        revoked.put(tokenId, expiresAt.getTime());
+    }
+
+    public void revoke(Token token) {
+        if (token.getTokenId() != null && token.getExpiresAt() != null) {
+            revoke(token.getTokenId(),
+                    Date.from(token.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant()));
+        }
+    }
+
+    // Runs every 10 minutes
+    @Scheduled(fixedDelay = 600_000)
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+}
@@ -1,5 +1,6 @@
 package org.example.tennistournament.security;
 
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -38,6 +39,8 @@ public class SecurityConfig {
                 .cors(withDefaults())
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // live score streams are authorized on the request; later async dispatches carry no token
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         .requestMatchers(
                                 "/api/users/register",
                                 "/api/users/login",
@@ -50,11 +53,20 @@ public class SecurityConfig {
 
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.POST, "/api/tournaments/create").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/tournaments/{tournamentId}/draw").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/tournaments/{tournamentId}/courts").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET,  "/api/tournaments/{tournamentId}/courts/occupancy").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.POST, "/api/matches/create").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/matches/batch").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET,  "/api/matches/referee-suggestion").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET,  "/api/matches/free-slots").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/matches/tournament/{tournamentId}/rebalance-referees").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/matches/tournament/{tournamentId}/reschedule").hasRole("ADMIN")
 
 
                         .requestMatchers(HttpMethod.GET,  "/api/matches/referee/**").hasAnyRole("REFEREE","ADMIN")
                         .requestMatchers(HttpMethod.PUT,  "/api/matches/{matchId}/score").hasAnyRole("REFEREE","ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/matches/{matchId}/points/**").hasAnyRole("REFEREE","ADMIN")
 
 
                         .requestMatchers(HttpMethod.POST, "/api/tournaments/{tournamentId}/register").hasRole("PLAYER")
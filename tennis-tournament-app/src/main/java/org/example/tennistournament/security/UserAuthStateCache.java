@@ -0,0 +1,122 @@
+package org.example.tennistournament.security;
+
+import org.example.tennistournament.model.User;
+import org.example.tennistournament.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Small cache of the current version and token generation of each user, used to reject JWTs
+ * minted before the user was updated, deleted or logged out everywhere, without loading the
+ * user on every request.
+ * A miss costs a single projection query; deleted users are remembered as tombstones.
+ * Changes made through this instance are cached after commit; an entry older than the TTL is
+ * re-read, so a change made through another instance takes effect here within the TTL.
+ */
+@Component
+public class UserAuthStateCache {
+
+    private record State(long version, long tokenGeneration, long loadedAt) {
+
+        boolean isDeleted() {
+            return version < 0;
+        }
+    }
+
+    private final Map<Long, State> states = new ConcurrentHashMap<>();
+
+    private final UserRepository userRepository;
+    private final long ttlNanos;
+
+    public UserAuthStateCache(UserRepository userRepository,
+                              @Value("${application.security.auth-state-ttl:PT30S}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * True if the user still exists and both the version and the token generation embedded
+     * in the token are the current ones.
+     */
+    public boolean isCurrent(Long userId, long tokenVersion, long tokenGeneration) {
+        State state = states.get(userId);
+        if (state == null || System.nanoTime() - state.loadedAt() > ttlNanos || (!state.isDeleted()
+                && (state.version() < tokenVersion || state.tokenGeneration() < tokenGeneration))) {
+            // unknown user, an expired entry, or a token newer than what we cached
+            state = load(userId);
+        }
+        return !state.isDeleted()
+                && state.version() == tokenVersion
+                && state.tokenGeneration() == tokenGeneration;
+    }
+
+    /**
+     * Stateless mode: true only if the cache already knows the token is outdated (user deleted,
+     * updated or logged out everywhere). Never queries the database; an unknown user is trusted
+     * on the strength of the signature.
+     */
+    public boolean isKnownStale(Long userId, long tokenVersion, long tokenGeneration) {
+        State state = states.get(userId);
+        return state != null && (state.isDeleted()
+                || state.version() > tokenVersion
+                || state.tokenGeneration() > tokenGeneration);
+    }
+
+    /**
+     * Records the new version and token generation of the user once the surrounding transaction
+     * commits. The values are read from the entity at that point, so the version bumped by the
+     * flush is the one cached; storing it before commit could publish a rolled-back state.
+     */
+    public void updateAfterCommit(User user) {
+        afterCommit(() -> {
+            State state = new State(user.getVersion() != null ? user.getVersion() : 0L, user.getTokenGeneration(),
+                    System.nanoTime());
+            states.merge(user.getId(), state, UserAuthStateCache::newer);
+        });
+    }
+
+    public void markDeletedAfterCommit(Long userId) {
+        afterCommit(() -> states.put(userId, deleted()));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static State deleted() {
+        return new State(-1L, -1L, System.nanoTime());
+    }
+
+    // a concurrent reload may race with an update; never go back to an older state
+    private static State newer(State cached, State fresh) {
+        long loadedAt = Math.max(cached.loadedAt(), fresh.loadedAt());
+        if (cached.isDeleted() || fresh.isDeleted()) {
+            return new State(-1L, -1L, loadedAt);
+        }
+        return new State(Math.max(cached.version(), fresh.version()),
+                Math.max(cached.tokenGeneration(), fresh.tokenGeneration()), loadedAt);
+    }
+
+    private State load(Long userId) {
+        State state = userRepository.findAuthStateById(userId)
+                .map(s -> new State(s.getVersion() != null ? s.getVersion() : 0L, s.getTokenGeneration(),
+                        System.nanoTime()))
+                .orElseGet(UserAuthStateCache::deleted);
+        return states.merge(userId, state, UserAuthStateCache::newer);
+    }
+}
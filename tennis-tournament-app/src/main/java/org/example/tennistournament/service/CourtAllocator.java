@@ -0,0 +1,145 @@
+package org.example.tennistournament.service;
+
+import org.example.tennistournament.model.Court;
+import org.example.tennistournament.model.CourtSchedule;
+import org.example.tennistournament.repository.CourtScheduleRepository;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Working set for booking the courts of one tournament: the day bitmaps of every court,
+ * loaded once per day on first use. A reservation is an AND test of the match's slot mask
+ * against each court's bitmap and an OR into the first court that is free; nothing is written
+ * until {@link #flush()}. Created by {@link CourtService} with the court rows locked; the
+ * bitmaps are read with a locking read, so they include every booking committed before.
+ * Not thread-safe: one allocator per request.
+ */
+public final class CourtAllocator {
+
+    private static final int SLOT_SECONDS = CourtSchedule.SLOT_MINUTES * 60;
+
+    private final Long tournamentId;
+    private final Map<Long, Court> courts = new LinkedHashMap<>();
+    private final CourtScheduleRepository courtScheduleRepository;
+    // date -> court id -> persisted schedule (absent while the court has no booking that day)
+    private final Map<LocalDate, Map<Long, CourtSchedule>> schedules = new HashMap<>();
+    // date -> court id -> working bitmap
+    private final Map<LocalDate, Map<Long, BitSet>> bitmaps = new HashMap<>();
+    private final Set<LocalDate> dirty = new HashSet<>();
+
+    CourtAllocator(Long tournamentId, Collection<Court> courts, CourtScheduleRepository courtScheduleRepository) {
+        this.tournamentId = tournamentId;
+        this.courtScheduleRepository = courtScheduleRepository;
+        courts.forEach(c -> this.courts.put(c.getId(), c));
+    }
+
+    public boolean isEmpty() {
+        return courts.isEmpty();
+    }
+
+    public boolean hasCourt(Long courtId) {
+        return courts.containsKey(courtId);
+    }
+
+    /**
+     * Books the preferred court (or the first free court, in id order, if none is preferred)
+     * for [start, end); returns null if it is taken.
+     */
+    public Court reserve(LocalDateTime start, LocalDateTime end, Long preferredCourtId) {
+        BitSet mask = slotMask(start, end);
+        Map<Long, BitSet> day = bitmapsOf(start.toLocalDate());
+        for (Court court : courts.values()) {
+            if (preferredCourtId != null && !preferredCourtId.equals(court.getId())) {
+                continue;
+            }
+            BitSet occupied = day.computeIfAbsent(court.getId(), id -> new BitSet(CourtSchedule.SLOTS_PER_DAY));
+            if (!occupied.intersects(mask)) {
+                occupied.or(mask);
+                dirty.add(start.toLocalDate());
+                return court;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Frees the slots of a match booked on one of these courts.
+     */
+    public void release(Court court, LocalDateTime start, LocalDateTime end) {
+        if (court == null || !courts.containsKey(court.getId())) {
+            return;
+        }
+        BitSet occupied = bitmapsOf(start.toLocalDate()).get(court.getId());
+        if (occupied != null) {
+            occupied.andNot(slotMask(start, end));
+            dirty.add(start.toLocalDate());
+        }
+    }
+
+    /**
+     * Writes the changed day bitmaps back to their schedule rows.
+     */
+    public void flush() {
+        for (LocalDate date : dirty) {
+            Map<Long, CourtSchedule> persisted = schedules.get(date);
+            bitmaps.get(date).forEach((courtId, bits) -> {
+                CourtSchedule schedule = persisted.get(courtId);
+                if (schedule == null) {
+                    schedule = new CourtSchedule(courts.get(courtId), date);
+                    persisted.put(courtId, schedule);
+                }
+                schedule.setSlots(toBytes(bits));
+                courtScheduleRepository.save(schedule);
+            });
+        }
+        dirty.clear();
+    }
+
+    private Map<Long, BitSet> bitmapsOf(LocalDate date) {
+        return bitmaps.computeIfAbsent(date, d -> {
+            Map<Long, CourtSchedule> persisted = new HashMap<>();
+            Map<Long, BitSet> day = new HashMap<>();
+            for (CourtSchedule s : courtScheduleRepository.lockByTournamentIdAndDate(tournamentId, d)) {
+                persisted.put(s.getCourt().getId(), s);
+                day.put(s.getCourt().getId(), BitSet.valueOf(s.getSlots()));
+            }
+            schedules.put(d, persisted);
+            return day;
+        });
+    }
+
+    /**
+     * Slots touched by [start, end), rounded outwards to whole slots; the match has to end on
+     * the day it starts (midnight included).
+     */
+    static BitSet slotMask(LocalDateTime start, LocalDateTime end) {
+        LocalDateTime midnight = start.toLocalDate().atStartOfDay();
+        long from = Duration.between(midnight, start).getSeconds() / SLOT_SECONDS;
+        long to = Math.floorDiv(Duration.between(midnight, end).toSeconds() + SLOT_SECONDS - 1, SLOT_SECONDS);
+        if (to > CourtSchedule.SLOTS_PER_DAY) {
+            throw new IllegalArgumentException("A match on a court must end on the day it starts!");
+        }
+        BitSet mask = new BitSet(CourtSchedule.SLOTS_PER_DAY);
+        if (to > from) {
+            mask.set((int) from, (int) to);
+        }
+        return mask;
+    }
+
+    static byte[] toBytes(BitSet bits) {
+        // BitSet.toByteArray drops trailing zero bytes; the column is fixed width
+        byte[] bytes = new byte[CourtSchedule.SLOTS_PER_DAY / 8];
+        byte[] used = bits.toByteArray();
+        System.arraycopy(used, 0, bytes, 0, used.length);
+        return bytes;
+    }
+}
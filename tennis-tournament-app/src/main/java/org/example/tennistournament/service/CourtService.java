@@ -0,0 +1,175 @@
+package org.example.tennistournament.service;
+
+import org.example.tennistournament.dto.CourtOccupancyDto;
+import org.example.tennistournament.model.Court;
+import org.example.tennistournament.model.CourtSchedule;
+import org.example.tennistournament.model.TennisMatch;
+import org.example.tennistournament.model.Tournament;
+import org.example.tennistournament.repository.CourtRepository;
+import org.example.tennistournament.repository.CourtScheduleRepository;
+import org.example.tennistournament.repository.TournamentRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Courts of a tournament and their per-day slot bitmaps: booking for new matches,
+ * freeing for deleted ones, and the venue occupancy view.
+ */
+@Service
+@Transactional
+public class CourtService {
+
+    private final CourtRepository courtRepository;
+    private final CourtScheduleRepository courtScheduleRepository;
+    private final TournamentRepository tournamentRepository;
+
+    public CourtService(CourtRepository courtRepository,
+                        CourtScheduleRepository courtScheduleRepository,
+                        TournamentRepository tournamentRepository) {
+        this.courtRepository = courtRepository;
+        this.courtScheduleRepository = courtScheduleRepository;
+        this.tournamentRepository = tournamentRepository;
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public Court createCourt(Long tournamentId, String name) {
+        Tournament tournament = tournamentRepository.findById(tournamentId)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "Tournament not found!"));
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Court name is required!");
+        }
+        if (courtRepository.existsByTournamentIdAndName(tournamentId, name.trim())) {
+            throw new IllegalArgumentException("Court name already used in this tournament!");
+        }
+        return courtRepository.save(new Court(tournament, name.trim()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Court> getCourts(Long tournamentId) {
+        if (!tournamentRepository.existsById(tournamentId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Tournament not found!");
+        }
+        return courtRepository.findByTournamentIdOrderById(tournamentId);
+    }
+
+    /**
+     * Allocator over the tournament's courts, with the court rows locked until the transaction ends.
+     */
+    public CourtAllocator openAllocator(Long tournamentId) {
+        return new CourtAllocator(tournamentId, courtRepository.lockAllByTournamentId(tournamentId),
+                courtScheduleRepository);
+    }
+
+    /**
+     * Books a court for a single match: the given one, or the first free one if none is given.
+     * Returns null for tournaments without courts.
+     */
+    public Court reserve(Long tournamentId, Long courtId, LocalDateTime start, LocalDateTime end) {
+        CourtAllocator allocator = openAllocator(tournamentId);
+        Court court = reserve(allocator, courtId, start, end);
+        allocator.flush();
+        return court;
+    }
+
+    /**
+     * Books a court through an open allocator; nothing is written until the allocator is flushed.
+     */
+    public Court reserve(CourtAllocator allocator, Long courtId, LocalDateTime start, LocalDateTime end) {
+        if (allocator.isEmpty()) {
+            if (courtId != null) {
+                throw new IllegalArgumentException("Tournament has no courts!");
+            }
+            return null;
+        }
+        if (courtId != null && !allocator.hasCourt(courtId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Court not found!");
+        }
+        Court court = allocator.reserve(start, end, courtId);
+        if (court == null) {
+            throw new IllegalArgumentException(courtId != null
+                    ? "Court is already booked for this time slot!"
+                    : "No free court for this time slot!");
+        }
+        return court;
+    }
+
+    /**
+     * Frees the court slots of matches that are being deleted.
+     */
+    public void release(Collection<TennisMatch> matches) {
+        Map<Long, List<TennisMatch>> byTournament = new LinkedHashMap<>();
+        for (TennisMatch m : matches) {
+            if (m.getCourt() != null) {
+                byTournament.computeIfAbsent(m.getCourt().getTournament().getId(), id -> new ArrayList<>()).add(m);
+            }
+        }
+        byTournament.forEach((tournamentId, list) -> {
+            CourtAllocator allocator = openAllocator(tournamentId);
+            list.forEach(m -> allocator.release(m.getCourt(), m.getStartTime(), m.getEndTime()));
+            allocator.flush();
+        });
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @Transactional(readOnly = true)
+    public CourtOccupancyDto getOccupancy(Long tournamentId, LocalDate date) {
+        List<Court> courts = getCourts(tournamentId);
+        Map<Long, BitSet> bitmaps = new HashMap<>();
+        for (CourtSchedule s : courtScheduleRepository.findByTournamentIdAndDate(tournamentId, date)) {
+            bitmaps.put(s.getCourt().getId(), BitSet.valueOf(s.getSlots()));
+        }
+
+        CourtOccupancyDto dto = new CourtOccupancyDto();
+        dto.date = date;
+        dto.slotMinutes = CourtSchedule.SLOT_MINUTES;
+        dto.courts = courts.size();
+        BitSet allBusy = null;
+        for (Court court : courts) {
+            BitSet bits = bitmaps.getOrDefault(court.getId(), new BitSet());
+            CourtOccupancyDto.CourtDay day = new CourtOccupancyDto.CourtDay();
+            day.courtId = court.getId();
+            day.name = court.getName();
+            day.busyMinutes = (long) bits.cardinality() * CourtSchedule.SLOT_MINUTES;
+            day.busy = intervals(bits, date);
+            dto.byCourt.add(day);
+            dto.busyMinutes += day.busyMinutes;
+            if (allBusy == null) {
+                allBusy = (BitSet) bits.clone();
+            } else {
+                allBusy.and(bits);
+            }
+        }
+        if (allBusy != null) {
+            dto.allCourtsBusy = intervals(allBusy, date);
+            dto.utilization = (double) dto.busyMinutes / (courts.size() * 24L * 60);
+        }
+        return dto;
+    }
+
+    private static List<CourtOccupancyDto.Interval> intervals(BitSet bits, LocalDate date) {
+        List<CourtOccupancyDto.Interval> intervals = new ArrayList<>();
+        LocalDateTime midnight = date.atStartOfDay();
+        for (int from = bits.nextSetBit(0); from >= 0; from = bits.nextSetBit(from)) {
+            int to = bits.nextClearBit(from);
+            intervals.add(new CourtOccupancyDto.Interval(
+                    midnight.plusMinutes((long) from * CourtSchedule.SLOT_MINUTES),
+                    midnight.plusMinutes((long) to * CourtSchedule.SLOT_MINUTES)));
+            from = to;
+        }
+        return intervals;
+    }
+}
@@ -0,0 +1,247 @@
+package org.example.tennistournament.service;
+
+import org.example.tennistournament.dto.DrawRequestDto;
+import org.example.tennistournament.dto.MatchBatchItemDto;
+import org.example.tennistournament.dto.MatchBatchRequestDto;
+import org.example.tennistournament.dto.MatchBatchResultDto;
+import org.example.tennistournament.model.DrawFormat;
+import org.example.tennistournament.model.Tournament;
+import org.example.tennistournament.repository.TennisMatchRepository;
+import org.example.tennistournament.repository.TournamentRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates the draw of a tournament and fits it into a timetable.
+ * <p>
+ * Pairings: a knockout produces its first round (byes for the top of the list when the field is
+ * not a power of two; later rounds depend on results), a round robin uses the circle method.
+ * Timetable: greedy, round by round, every match takes the earliest slot where a court, both
+ * players and a referee are free, with the least loaded free referee taken from a
+ * {@link RefereePool}. Player busy time is kept in one bit set of slot indexes per player, so the
+ * solver is linear in matches times slots skipped. The result is persisted atomically through the batch path, which re-checks every rule.
+ */
+@Service
+@Transactional
+public class DrawService {
+
+    private final TournamentRepository tournamentRepository;
+    private final TennisMatchRepository tennisMatchRepository;
+    private final MatchIntervalIndex matchIntervalIndex;
+    private final TennisMatchService tennisMatchService;
+    private final RefereeAssignmentService refereeAssignmentService;
+    private final CourtService courtService;
+
+    public DrawService(TournamentRepository tournamentRepository,
+                       TennisMatchRepository tennisMatchRepository,
+                       MatchIntervalIndex matchIntervalIndex,
+                       TennisMatchService tennisMatchService,
+                       RefereeAssignmentService refereeAssignmentService,
+                       CourtService courtService) {
+        this.tournamentRepository = tournamentRepository;
+        this.tennisMatchRepository = tennisMatchRepository;
+        this.matchIntervalIndex = matchIntervalIndex;
+        this.tennisMatchService = tennisMatchService;
+        this.refereeAssignmentService = refereeAssignmentService;
+        this.courtService = courtService;
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public MatchBatchResultDto generateDraw(Long tournamentId, DrawRequestDto request, Long currentUserId) {
+        validateRequest(request);
+        Tournament tournament = tournamentRepository.findById(tournamentId)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "Tournament not found!"));
+        if (tournament.isCancelled()) {
+            throw new IllegalArgumentException("Cannot draw a cancelled tournament!");
+        }
+        if (tennisMatchRepository.existsByTournamentId(tournamentId)) {
+            throw new IllegalArgumentException("Tournament already has matches!");
+        }
+
+        List<Long> players = new ArrayList<>(tournamentRepository.findPlayerIds(tournamentId));
+        players.sort(null);
+        if (players.size() < 2) {
+            throw new IllegalArgumentException("At least two registered players are needed for a draw!");
+        }
+        RefereePool referees = refereeAssignmentService.newPool(tournamentId, request.refereeIds, Set.of());
+        if (referees.isEmpty()) {
+            throw new IllegalArgumentException("No referees available for the draw!");
+        }
+
+        // with courts set up, the draw cannot use more parallel matches than the venue has
+        int venueCourts = courtService.getCourts(tournamentId).size();
+        if (venueCourts > 0 && venueCourts < request.courts) {
+            request.courts = venueCourts;
+        }
+
+        List<List<long[]>> rounds = request.format == DrawFormat.ROUND_ROBIN
+                ? roundRobin(players)
+                : knockoutFirstRound(players);
+
+        matchIntervalIndex.warmTournament(tournamentId);
+        List<MatchBatchItemDto> items = timetable(tournament, request, rounds, referees);
+
+        MatchBatchRequestDto batch = new MatchBatchRequestDto();
+        batch.tournamentId = tournamentId;
+        batch.atomic = true;
+        batch.matches = items;
+        return tennisMatchService.createMatches(batch, currentUserId);
+    }
+
+    private static void validateRequest(DrawRequestDto request) {
+        if (request.format == null) {
+            throw new IllegalArgumentException("Draw format is required!");
+        }
+        if (request.courts < 1) {
+            throw new IllegalArgumentException("At least one court is required!");
+        }
+        if (request.slotMinutes < 1) {
+            throw new IllegalArgumentException("Slot length must be positive!");
+        }
+        if (request.dayStart == null || request.dayEnd == null
+                || Duration.between(request.dayStart, request.dayEnd).toMinutes() < request.slotMinutes) {
+            throw new IllegalArgumentException("Daily hours must fit at least one slot!");
+        }
+    }
+
+    // --- pairings ---
+
+    static List<List<long[]>> knockoutFirstRound(List<Long> players) {
+        int n = players.size();
+        int size = Integer.highestOneBit(n) == n ? n : Integer.highestOneBit(n) << 1;
+        int byes = size - n;
+        List<Long> playing = players.subList(byes, n);
+        List<long[]> round = new ArrayList<>();
+        for (int i = 0, j = playing.size() - 1; i < j; i++, j--) {
+            round.add(new long[] { playing.get(i), playing.get(j) });
+        }
+        return List.of(round);
+    }
+
+    static List<List<long[]>> roundRobin(List<Long> players) {
+        List<Long> circle = new ArrayList<>(players);
+        if (circle.size() % 2 == 1) {
+            circle.add(null); // bye
+        }
+        int n = circle.size();
+        List<List<long[]>> rounds = new ArrayList<>(n - 1);
+        for (int r = 0; r < n - 1; r++) {
+            List<long[]> round = new ArrayList<>(n / 2);
+            for (int i = 0; i < n / 2; i++) {
+                Long a = circle.get(i);
+                Long b = circle.get(n - 1 - i);
+                if (a != null && b != null) {
+                    round.add(new long[] { a, b });
+                }
+            }
+            rounds.add(round);
+            // first player stays, everybody else rotates one seat
+            circle.add(1, circle.remove(n - 1));
+        }
+        return rounds;
+    }
+
+    // --- timetable ---
+
+    private List<MatchBatchItemDto> timetable(Tournament tournament,
+                                              DrawRequestDto request,
+                                              List<List<long[]>> rounds,
+                                              RefereePool referees) {
+        long slotsPerDay = Duration.between(request.dayStart, request.dayEnd).toMinutes() / request.slotMinutes;
+        List<LocalDateTime> slots = new ArrayList<>();
+        for (LocalDate day = tournament.getStartDate(); !day.isAfter(tournament.getEndDate()); day = day.plusDays(1)) {
+            for (long i = 0; i < slotsPerDay; i++) {
+                slots.add(day.atTime(request.dayStart).plusMinutes(i * request.slotMinutes));
+            }
+        }
+
+        int[] courtsUsed = new int[slots.size()];
+        BitSet fullSlots = new BitSet(slots.size());
+        Map<Long, BitSet> busy = new HashMap<>();
+
+        List<MatchBatchItemDto> items = new ArrayList<>();
+        int unplaced = 0;
+        for (List<long[]> round : rounds) {
+            for (long[] pairing : round) {
+                BitSet b1 = busy.computeIfAbsent(pairing[0], id -> new BitSet());
+                BitSet b2 = busy.computeIfAbsent(pairing[1], id -> new BitSet());
+                int k = 0;
+                MatchBatchItemDto placed = null;
+                while (placed == null) {
+                    k = Math.max(fullSlots.nextClearBit(k), Math.max(b1.nextClearBit(k), b2.nextClearBit(k)));
+                    if (k >= slots.size()) {
+                        break;
+                    }
+                    if (b1.get(k) || b2.get(k) || fullSlots.get(k)) {
+                        continue; // one of the jumps landed on a busy bit of another set
+                    }
+                    LocalDateTime start = slots.get(k);
+                    LocalDateTime end = start.plusMinutes(request.slotMinutes);
+                    boolean free1 = isFree(pairing[0], start, end, b1, k);
+                    boolean free2 = isFree(pairing[1], start, end, b2, k);
+                    if (!free1 || !free2) {
+                        continue;
+                    }
+                    Long referee = referees.assign(start, end);
+                    if (referee == null) {
+                        k++;
+                        continue;
+                    }
+                    b1.set(k);
+                    b2.set(k);
+                    if (++courtsUsed[k] == request.courts) {
+                        fullSlots.set(k);
+                    }
+                    placed = item(pairing, referee, start, end);
+                }
+                if (placed == null) {
+                    unplaced++;
+                } else {
+                    items.add(placed);
+                }
+            }
+        }
+        if (unplaced > 0) {
+            throw new IllegalArgumentException("Not enough court time for the draw: "
+                    + unplaced + " match(es) could not be scheduled!");
+        }
+        return items;
+    }
+
+    /**
+     * Checks committed matches of the participant; a conflict is remembered in its bit set.
+     */
+    private boolean isFree(Long participantId, LocalDateTime start, LocalDateTime end, BitSet busy, int slot) {
+        boolean conflict = matchIntervalIndex.isEnabled()
+                ? matchIntervalIndex.hasConflict(List.of(participantId), start, end)
+                : !tennisMatchRepository.findOverlappingMatches(List.of(participantId), start, end).isEmpty();
+        if (conflict) {
+            busy.set(slot);
+        }
+        return !conflict;
+    }
+
+    private static MatchBatchItemDto item(long[] pairing, Long referee, LocalDateTime start, LocalDateTime end) {
+        MatchBatchItemDto item = new MatchBatchItemDto();
+        item.player1Id = pairing[0];
+        item.player2Id = pairing[1];
+        item.refereeId = referee;
+        item.startTime = start;
+        item.endTime = end;
+        return item;
+    }
+}
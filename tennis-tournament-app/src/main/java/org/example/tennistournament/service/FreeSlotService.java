@@ -0,0 +1,163 @@
+package org.example.tennistournament.service;
+
+import org.example.tennistournament.dto.FreeSlotDto;
+import org.example.tennistournament.model.TennisMatch;
+import org.example.tennistournament.model.Tournament;
+import org.example.tennistournament.repository.TennisMatchRepository;
+import org.example.tennistournament.repository.TournamentRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Finds the earliest slots in which a set of participants is free at the same time.
+ * The busy intervals of all participants inside the window are merged into one sorted list and
+ * swept once, trying candidate starts on a fixed grid (and inside daily hours, if given).
+ */
+@Service
+@Transactional(readOnly = true)
+public class FreeSlotService {
+
+    public static final int MAX_SLOTS = 100;
+
+    private final TournamentRepository tournamentRepository;
+    private final TennisMatchRepository tennisMatchRepository;
+    private final MatchIntervalIndex matchIntervalIndex;
+
+    public FreeSlotService(TournamentRepository tournamentRepository,
+                           TennisMatchRepository tennisMatchRepository,
+                           MatchIntervalIndex matchIntervalIndex) {
+        this.tournamentRepository = tournamentRepository;
+        this.tennisMatchRepository = tennisMatchRepository;
+        this.matchIntervalIndex = matchIntervalIndex;
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<FreeSlotDto> findFreeSlots(Long tournamentId,
+                                           List<Long> playerIds,
+                                           Long refereeId,
+                                           int durationMinutes,
+                                           LocalDateTime from,
+                                           LocalDateTime to,
+                                           int count,
+                                           int stepMinutes,
+                                           LocalTime dayStart,
+                                           LocalTime dayEnd) {
+        if (playerIds == null || playerIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one player is required!");
+        }
+        if (durationMinutes < 1 || stepMinutes < 1) {
+            throw new IllegalArgumentException("Duration and step must be positive!");
+        }
+        if (count < 1 || count > MAX_SLOTS) {
+            throw new IllegalArgumentException("Count must be between 1 and " + MAX_SLOTS + "!");
+        }
+        if ((dayStart == null) != (dayEnd == null) || (dayStart != null && !dayStart.isBefore(dayEnd))) {
+            throw new IllegalArgumentException("Daily hours need both a start and a later end!");
+        }
+        Tournament tournament = tournamentRepository.findById(tournamentId)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "Tournament not found!"));
+
+        // window: inside the tournament dates, and not in the past unless asked explicitly
+        LocalDateTime tournamentStart = tournament.getStartDate().atStartOfDay();
+        LocalDateTime tournamentEnd = tournament.getEndDate().plusDays(1).atStartOfDay();
+        LocalDateTime windowStart = from != null ? from : LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        if (windowStart.isBefore(tournamentStart)) {
+            windowStart = tournamentStart;
+        }
+        LocalDateTime windowEnd = to != null && to.isBefore(tournamentEnd) ? to : tournamentEnd;
+        if (!windowStart.isBefore(windowEnd)) {
+            return List.of();
+        }
+
+        Set<Long> participants = new LinkedHashSet<>(playerIds);
+        if (refereeId != null) {
+            participants.add(refereeId);
+        }
+        List<long[]> merged = merge(loadBusy(participants, windowStart, windowEnd));
+        return sweep(merged, windowStart, windowEnd, durationMinutes * 60L, stepMinutes * 60L,
+                count, dayStart, dayEnd);
+    }
+
+    private List<long[]> loadBusy(Set<Long> participants, LocalDateTime from, LocalDateTime to) {
+        if (matchIntervalIndex.isEnabled()) {
+            return matchIntervalIndex.findBusy(participants, from, to);
+        }
+        List<long[]> busy = new ArrayList<>();
+        for (TennisMatch m : tennisMatchRepository.findOverlappingMatches(new ArrayList<>(participants), from, to)) {
+            busy.add(new long[] { MatchIntervalIndex.toKey(m.getStartTime()), MatchIntervalIndex.toKey(m.getEndTime()) });
+        }
+        return busy;
+    }
+
+    static List<long[]> merge(List<long[]> busy) {
+        busy.sort(Comparator.comparingLong(b -> b[0]));
+        List<long[]> merged = new ArrayList<>();
+        for (long[] b : busy) {
+            long[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && b[0] <= last[1]) {
+                last[1] = Math.max(last[1], b[1]);
+            } else {
+                merged.add(new long[] { b[0], b[1] });
+            }
+        }
+        return merged;
+    }
+
+    private static List<FreeSlotDto> sweep(List<long[]> merged,
+                                           LocalDateTime windowStart,
+                                           LocalDateTime windowEnd,
+                                           long duration,
+                                           long step,
+                                           int count,
+                                           LocalTime dayStart,
+                                           LocalTime dayEnd) {
+        long ws = MatchIntervalIndex.toKey(windowStart);
+        long we = MatchIntervalIndex.toKey(windowEnd);
+        List<FreeSlotDto> slots = new ArrayList<>(count);
+        long t = ws;
+        int p = 0;
+        while (slots.size() < count && t + duration <= we) {
+            if (dayStart != null) {
+                LocalDateTime candidate = MatchIntervalIndex.fromKey(t);
+                long open = MatchIntervalIndex.toKey(candidate.toLocalDate().atTime(dayStart));
+                long close = MatchIntervalIndex.toKey(candidate.toLocalDate().atTime(dayEnd));
+                if (t < open) {
+                    t = alignUp(open, ws, step);
+                    continue;
+                }
+                if (t + duration > close) {
+                    t = alignUp(open + 86_400, ws, step);
+                    continue;
+                }
+            }
+            while (p < merged.size() && merged.get(p)[1] <= t) {
+                p++;
+            }
+            if (p < merged.size() && merged.get(p)[0] < t + duration) {
+                t = alignUp(merged.get(p)[1], ws, step);
+                continue;
+            }
+            slots.add(new FreeSlotDto(MatchIntervalIndex.fromKey(t), MatchIntervalIndex.fromKey(t + duration)));
+            t += step;
+        }
+        return slots;
+    }
+
+    // next grid point (windowStart + k * step) at or after the given key
+    private static long alignUp(long key, long origin, long step) {
+        return origin + Math.floorDiv(key - origin + step - 1, step) * step;
+    }
+}
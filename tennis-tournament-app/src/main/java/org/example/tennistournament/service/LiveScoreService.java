@@ -0,0 +1,359 @@
+package org.example.tennistournament.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.tennistournament.dto.LiveScoreDto;
+import org.example.tennistournament.event.MatchScoreUpdatedEvent;
+import org.example.tennistournament.exception.ServiceOverloadedException;
+import org.example.tennistournament.model.TennisMatch;
+import org.example.tennistournament.repository.TennisMatchRepository;
+import org.example.tennistournament.repository.TournamentRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live score streams over Server-Sent Events, one topic per match and one per tournament.
+ * <p>
+ * A committed score change only replaces the pending update of its match, so the referee's
+ * request never waits on a subscriber. Every coalesce window the pending updates are handed to
+ * the subscribers of the two topics; each subscriber keeps at most the latest update per match
+ * and is drained by at most one sender thread at a time, so a slow consumer falls behind (and
+ * skips intermediate scores) instead of growing a backlog.
+ * <p>
+ * Writes are blocking servlet writes, so a client that stops reading pins its sender thread.
+ * A write that takes longer than the write timeout ends that stream with an error, and a
+ * replacement sender thread (at most {@code sender-threads} of them) serves the other streams
+ * until the stuck write returns, which the container's own socket timeout guarantees.
+ * Idle subscribers are async servlet requests, not threads.
+ */
+@Service
+public class LiveScoreService {
+
+    private final TennisMatchRepository tennisMatchRepository;
+    private final TournamentRepository tournamentRepository;
+    private final long emitterTimeoutMillis;
+    private final long writeTimeoutMillis;
+    private final int maxSubscribers;
+
+    // topic -> subscribers; a topic is removed with its last subscriber
+    private final Map<String, Set<Subscriber>> topics = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    // match id -> latest committed update not yet handed to the subscribers
+    private final Map<Long, LiveScoreDto> pending = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService ticker;
+    private final ThreadPoolExecutor sender;
+
+    public LiveScoreService(TennisMatchRepository tennisMatchRepository,
+                            TournamentRepository tournamentRepository,
+                            @Value("${application.live.coalesce-window:PT0.25S}") Duration coalesceWindow,
+                            @Value("${application.live.heartbeat:PT30S}") Duration heartbeat,
+                            @Value("${application.live.emitter-timeout:PT30M}") Duration emitterTimeout,
+                            @Value("${application.live.write-timeout:PT10S}") Duration writeTimeout,
+                            @Value("${application.live.max-subscribers:10000}") int maxSubscribers,
+                            @Value("${application.live.sender-threads:4}") int senderThreads) {
+        this.tennisMatchRepository = tennisMatchRepository;
+        this.tournamentRepository = tournamentRepository;
+        this.emitterTimeoutMillis = emitterTimeout.toMillis();
+        this.writeTimeoutMillis = Math.max(1, writeTimeout.toMillis());
+        this.maxSubscribers = maxSubscribers;
+
+        AtomicInteger counter = new AtomicInteger();
+        int threads = Math.max(1, senderThreads);
+        // a subscriber is queued at most once, so the queue is bounded by the subscriber count;
+        // the core size only grows beyond threads while stuck writes are being replaced
+        this.sender = new ThreadPoolExecutor(
+                threads, 2 * threads,
+                0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "live-score-sender-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "live-score-ticker");
+            t.setDaemon(true);
+            return t;
+        });
+        long window = Math.max(1, coalesceWindow.toMillis());
+        ticker.scheduleWithFixedDelay(this::flush, window, window, TimeUnit.MILLISECONDS);
+        long beat = Math.max(1, heartbeat.toMillis());
+        ticker.scheduleWithFixedDelay(this::heartbeat, beat, beat, TimeUnit.MILLISECONDS);
+        long check = Math.max(50, writeTimeoutMillis / 4);
+        ticker.scheduleWithFixedDelay(this::abandonStalledWrites, check, check, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stream of one match, starting with its current score.
+     */
+    @Transactional(readOnly = true)
+    public SseEmitter subscribeToMatch(Long matchId) {
+        TennisMatch match = tennisMatchRepository.findById(matchId)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "Match not found!"));
+        Subscriber subscriber = subscribe(matchTopic(matchId));
+        subscriber.offer(new LiveScoreDto(match));
+        return subscriber.emitter;
+    }
+
+    /**
+     * Stream of every score change in a tournament.
+     */
+    @Transactional(readOnly = true)
+    public SseEmitter subscribeToTournament(Long tournamentId) {
+        if (!tournamentRepository.existsById(tournamentId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Tournament not found!");
+        }
+        return subscribe(tournamentTopic(tournamentId)).emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onScoreUpdated(MatchScoreUpdatedEvent event) {
+        if (topics.containsKey(matchTopic(event.matchId()))
+                || topics.containsKey(tournamentTopic(event.tournamentId()))) {
+            pending.put(event.matchId(), new LiveScoreDto(event));
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    private Subscriber subscribe(String topic) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ServiceOverloadedException("Too many live score subscribers, please retry later", 30);
+        }
+        Subscriber subscriber = new Subscriber(topic, new SseEmitter(emitterTimeoutMillis));
+        subscriber.emitter.onCompletion(subscriber::close);
+        subscriber.emitter.onTimeout(subscriber::close);
+        subscriber.emitter.onError(ex -> subscriber.close());
+        topics.compute(topic, (key, set) -> {
+            Set<Subscriber> subscribers = set != null ? set : ConcurrentHashMap.newKeySet();
+            subscribers.add(subscriber);
+            return subscribers;
+        });
+        return subscriber;
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        topics.computeIfPresent(subscriber.topic, (key, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+        subscriberCount.decrementAndGet();
+    }
+
+    private void flush() {
+        for (Long matchId : new ArrayList<>(pending.keySet())) {
+            LiveScoreDto update = pending.remove(matchId);
+            if (update != null) {
+                publish(matchTopic(update.matchId), update);
+                publish(tournamentTopic(update.tournamentId), update);
+            }
+        }
+    }
+
+    private void publish(String topic, LiveScoreDto update) {
+        Set<Subscriber> subscribers = topics.get(topic);
+        if (subscribers != null) {
+            subscribers.forEach(s -> s.offer(update));
+        }
+    }
+
+    private void heartbeat() {
+        topics.values().forEach(set -> set.forEach(Subscriber::ping));
+    }
+
+    private void abandonStalledWrites() {
+        long now = System.currentTimeMillis();
+        topics.values().forEach(set -> set.forEach(s -> s.abandonIfStalled(now)));
+    }
+
+    private boolean addReplacementSender() {
+        synchronized (sender) {
+            if (sender.getCorePoolSize() >= sender.getMaximumPoolSize()) {
+                return false;
+            }
+            sender.setCorePoolSize(sender.getCorePoolSize() + 1);
+            return true;
+        }
+    }
+
+    private void removeReplacementSender() {
+        synchronized (sender) {
+            sender.setCorePoolSize(sender.getCorePoolSize() - 1);
+        }
+    }
+
+    private static String matchTopic(Long matchId) {
+        return "match:" + matchId;
+    }
+
+    private static String tournamentTopic(Long tournamentId) {
+        return "tournament:" + tournamentId;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        ticker.shutdownNow();
+        sender.shutdownNow();
+        topics.values().forEach(set -> set.forEach(s -> s.emitter.complete()));
+        topics.clear();
+    }
+
+    private final class Subscriber {
+
+        // sendingSince while no write is in progress, and after the watchdog gave up on one
+        private static final long IDLE = 0;
+        private static final long ABANDONED = -1;
+        private static final long ABANDONED_AND_REPLACED = -2;
+
+        final String topic;
+        final SseEmitter emitter;
+        // match id -> latest update this subscriber has not been sent yet
+        private final Map<Long, LiveScoreDto> queued = new LinkedHashMap<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean pingDue;
+        // start of the write in progress (epoch millis), or one of the states above
+        private final AtomicLong sendingSince = new AtomicLong(IDLE);
+
+        Subscriber(String topic, SseEmitter emitter) {
+            this.topic = topic;
+            this.emitter = emitter;
+        }
+
+        void offer(LiveScoreDto update) {
+            synchronized (queued) {
+                queued.remove(update.matchId);
+                queued.put(update.matchId, update);
+            }
+            schedule();
+        }
+
+        void ping() {
+            pingDue = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (closed.get() || !scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException ex) {
+                scheduled.set(false); // shutting down
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                List<LiveScoreDto> batch;
+                synchronized (queued) {
+                    batch = new ArrayList<>(queued.values());
+                    queued.clear();
+                }
+                boolean ping = pingDue;
+                pingDue = false;
+                if (batch.isEmpty() && !ping) {
+                    scheduled.set(false);
+                    // an offer may have come in after the batch was taken but before the flag was cleared
+                    synchronized (queued) {
+                        if (queued.isEmpty() && !pingDue) {
+                            return;
+                        }
+                    }
+                    if (!scheduled.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                if (!send(batch)) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Writes the batch (or a keep-alive); false once this subscriber is done.
+         */
+        private boolean send(List<LiveScoreDto> batch) {
+            long started = System.currentTimeMillis();
+            sendingSince.set(started);
+            boolean sent;
+            try {
+                for (LiveScoreDto update : batch) {
+                    emitter.send(SseEmitter.event().name("score").data(update, MediaType.APPLICATION_JSON));
+                }
+                if (batch.isEmpty()) {
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                }
+                sent = true;
+            } catch (IOException | IllegalStateException ex) {
+                // client gone or emitter already completed; the container completes the request
+                sent = false;
+            }
+            if (!sendingSince.compareAndSet(started, IDLE)) {
+                // the watchdog gave up on this write while it was blocked
+                if (sendingSince.get() == ABANDONED_AND_REPLACED) {
+                    removeReplacementSender();
+                }
+                return false;
+            }
+            if (!sent) {
+                close();
+            }
+            return sent;
+        }
+
+        void abandonIfStalled(long now) {
+            long since = sendingSince.get();
+            if (since <= IDLE || now - since < writeTimeoutMillis) {
+                return;
+            }
+            // grown first, so the sender thread sees the replacement once it sees the state
+            boolean replaced = addReplacementSender();
+            if (!sendingSince.compareAndSet(since, replaced ? ABANDONED_AND_REPLACED : ABANDONED)) {
+                if (replaced) {
+                    removeReplacementSender();
+                }
+                return;
+            }
+            close();
+            emitter.completeWithError(new IOException("Live score write timed out"));
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                unsubscribe(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package org.example.tennistournament.service;
+
+import org.example.tennistournament.model.TennisMatch;
+import org.example.tennistournament.repository.TennisMatchRepository;
+import org.example.tennistournament.repository.TennisMatchRepository.MatchInterval;
+import org.example.tennistournament.repository.TournamentRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory index of the busy time of every participant (players and referees), used for
+ * match conflict detection instead of the OR-heavy overlap query.
+ * <p>
+ * Each participant maps to an immutable set of intervals held in sorted primitive arrays,
+ * with a running maximum of end times so an overlap check is a binary search.
+ * Participants are loaded lazily (or a whole tournament at once) and the index is kept
+ * current after commit whenever matches are created, moved or deleted.
+ * <p>
+ * Loads are locking reads. The caller's snapshot may predate a match another writer committed
+ * before releasing the participant locks; that writer skipped participants not loaded yet, so
+ * a load from the old snapshot would miss the match until restart.
+ */
+@Component
+public class MatchIntervalIndex {
+
+    private static final int QUERY_CHUNK = 1000;
+
+    private final Map<Long, Intervals> byParticipant = new ConcurrentHashMap<>();
+    private final Set<Long> warmedTournaments = ConcurrentHashMap.newKeySet();
+    // bumped before every committed change, so a bulk load can tell it raced with one
+    private final AtomicLong modifications = new AtomicLong();
+
+    private final TennisMatchRepository tennisMatchRepository;
+    private final TournamentRepository tournamentRepository;
+    private final boolean enabled;
+
+    public MatchIntervalIndex(TennisMatchRepository tennisMatchRepository,
+                              TournamentRepository tournamentRepository,
+                              @Value("${application.scheduling.interval-index.enabled:true}") boolean enabled) {
+        this.tennisMatchRepository = tennisMatchRepository;
+        this.tournamentRepository = tournamentRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Ids of the committed matches that keep any of the participants busy during [start, end).
+     */
+    public List<Long> findConflicts(Collection<Long> participantIds, LocalDateTime start, LocalDateTime end) {
+        long from = toKey(start);
+        long to = toKey(end);
+        Set<Long> conflicts = new LinkedHashSet<>();
+        for (Long participantId : participantIds) {
+            intervalsOf(participantId).collectOverlapping(from, to, conflicts);
+        }
+        return new ArrayList<>(conflicts);
+    }
+
+    /**
+     * Ids of the matches, other than the ignored ones, that keep any of the participants busy
+     * during [start, end), for a schedule write. A conflict found in the index is the answer;
+     * "no conflict" is confirmed with a locking read, which also sees the matches committed
+     * through other instances. Call it under the participant locks.
+     */
+    public List<Long> findConflictsForWrite(Collection<Long> participantIds, LocalDateTime start, LocalDateTime end,
+                                            Collection<Long> ignoredMatchIds) {
+        if (enabled) {
+            List<Long> conflicts = findConflicts(participantIds, start, end);
+            conflicts.removeAll(ignoredMatchIds);
+            if (!conflicts.isEmpty()) {
+                return conflicts;
+            }
+        }
+        List<Long> conflicts = tennisMatchRepository.lockOverlappingMatchIds(participantIds, start, end);
+        conflicts.removeAll(ignoredMatchIds);
+        return conflicts;
+    }
+
+    public boolean hasConflict(Collection<Long> participantIds, LocalDateTime start, LocalDateTime end) {
+        long from = toKey(start);
+        long to = toKey(end);
+        for (Long participantId : participantIds) {
+            if (intervalsOf(participantId).overlaps(from, to)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Busy intervals of the participants that overlap [from, to), as {start, end} epoch-second pairs
+     * (see {@link #toKey}); intervals of different participants may overlap each other.
+     */
+    public List<long[]> findBusy(Collection<Long> participantIds, LocalDateTime from, LocalDateTime to) {
+        List<long[]> busy = new ArrayList<>();
+        for (Long participantId : participantIds) {
+            intervalsOf(participantId).collectBusy(toKey(from), toKey(to), busy);
+        }
+        return busy;
+    }
+
+    /**
+     * Loads every registered player and every referee of the tournament with one pass over
+     * their matches, instead of one query per participant on first use.
+     */
+    public void warmTournament(Long tournamentId) {
+        if (!enabled || warmedTournaments.contains(tournamentId)) {
+            return;
+        }
+        Set<Long> participantIds = new HashSet<>(tournamentRepository.findPlayerIds(tournamentId));
+        for (Object[] row : tennisMatchRepository.findParticipantIdsByTournament(tournamentId)) {
+            for (Object id : row) {
+                if (id != null) {
+                    participantIds.add((Long) id);
+                }
+            }
+        }
+        participantIds.removeAll(byParticipant.keySet());
+
+        long seen = modifications.get();
+        Map<Long, List<MatchInterval>> loaded = new HashMap<>();
+        participantIds.forEach(id -> loaded.put(id, new ArrayList<>()));
+        List<Long> ids = new ArrayList<>(participantIds);
+        for (int from = 0; from < ids.size(); from += QUERY_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + QUERY_CHUNK, ids.size()));
+            for (MatchInterval m : tennisMatchRepository.lockIntervalsByParticipants(chunk)) {
+                addLoaded(loaded, m.getPlayer1Id(), m);
+                addLoaded(loaded, m.getPlayer2Id(), m);
+                addLoaded(loaded, m.getRefereeId(), m);
+            }
+        }
+        Map<Long, Intervals> published = new HashMap<>();
+        loaded.forEach((id, matches) -> {
+            Intervals intervals = Intervals.of(matches);
+            if (byParticipant.putIfAbsent(id, intervals) == null) {
+                published.put(id, intervals);
+            }
+        });
+        if (modifications.get() != seen) {
+            // a change committed while we were reading may be missing from the snapshot;
+            // drop what we published and let those participants load lazily
+            published.keySet().forEach(byParticipant::remove);
+            return;
+        }
+        warmedTournaments.add(tournamentId);
+    }
+
+    public void addAfterCommit(TennisMatch match) {
+        afterCommit(() -> apply(match, true));
+    }
+
+    public void removeAfterCommit(TennisMatch match) {
+        afterCommit(() -> apply(match, false));
+    }
+
+    /**
+     * For a match whose participants or times changed: drops it from the previous participants
+     * and re-adds it with its current participants and times.
+     */
+    public void replaceAfterCommit(Collection<Long> previousParticipantIds, TennisMatch match) {
+        afterCommit(() -> {
+            modifications.incrementAndGet();
+            for (Long participantId : previousParticipantIds) {
+                byParticipant.computeIfPresent(participantId, (id, intervals) -> intervals.without(match.getId()));
+            }
+            apply(match, true);
+        });
+    }
+
+    public void forgetParticipantAfterCommit(Long userId) {
+        afterCommit(() -> {
+            modifications.incrementAndGet();
+            byParticipant.remove(userId);
+        });
+    }
+
+    private void apply(TennisMatch match, boolean add) {
+        modifications.incrementAndGet();
+        long start = toKey(match.getStartTime());
+        long end = toKey(match.getEndTime());
+        for (Long participantId : participantsOf(match)) {
+            // participants that are not loaded yet will read the committed row when they are
+            byParticipant.computeIfPresent(participantId, (id, intervals) -> add
+                    ? intervals.with(match.getId(), start, end)
+                    : intervals.without(match.getId()));
+        }
+    }
+
+    private Intervals intervalsOf(Long participantId) {
+        if (participantId == null) {
+            return Intervals.EMPTY;
+        }
+        Intervals cached = byParticipant.get(participantId);
+        if (cached != null) {
+            return cached;
+        }
+        // loaded outside the map, so other writers do not wait on the query; a change committed
+        // meanwhile may be missing from the result, which is then used once but not kept
+        long seen = modifications.get();
+        Intervals loaded = Intervals.of(tennisMatchRepository.lockIntervalsByParticipants(List.of(participantId)));
+        Intervals published = byParticipant.putIfAbsent(participantId, loaded);
+        if (published != null) {
+            return published;
+        }
+        if (modifications.get() != seen) {
+            byParticipant.remove(participantId, loaded);
+        }
+        return loaded;
+    }
+
+    private static void addLoaded(Map<Long, List<MatchInterval>> loaded, Long participantId, MatchInterval m) {
+        List<MatchInterval> list = participantId != null ? loaded.get(participantId) : null;
+        if (list != null) {
+            list.add(m);
+        }
+    }
+
+    static List<Long> participantsOf(TennisMatch match) {
+        List<Long> ids = new ArrayList<>(3);
+        if (match.getPlayer1() != null) ids.add(match.getPlayer1().getId());
+        if (match.getPlayer2() != null) ids.add(match.getPlayer2().getId());
+        if (match.getReferee() != null) ids.add(match.getReferee().getId());
+        return ids;
+    }
+
+    static long toKey(LocalDateTime time) {
+        // a plain monotonic encoding of the wall-clock time, no zone semantics involved
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    static LocalDateTime fromKey(long key) {
+        return LocalDateTime.ofEpochSecond(key, 0, ZoneOffset.UTC);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Immutable busy intervals of one participant, sorted by start. {@code maxEnds[i]} is the
+     * latest end among the first i + 1 intervals, which bounds every overlap search.
+     */
+    static final class Intervals {
+
+        static final Intervals EMPTY = new Intervals(new long[0], new long[0], new long[0]);
+
+        private final long[] starts;
+        private final long[] ends;
+        private final long[] matchIds;
+        private final long[] maxEnds;
+
+        private Intervals(long[] starts, long[] ends, long[] matchIds) {
+            this.starts = starts;
+            this.ends = ends;
+            this.matchIds = matchIds;
+            this.maxEnds = new long[starts.length];
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < ends.length; i++) {
+                max = Math.max(max, ends[i]);
+                maxEnds[i] = max;
+            }
+        }
+
+        static Intervals of(List<MatchInterval> matches) {
+            MatchInterval[] sorted = matches.toArray(new MatchInterval[0]);
+            Arrays.sort(sorted, (a, b) -> a.getStartTime().compareTo(b.getStartTime()));
+            long[] starts = new long[sorted.length];
+            long[] ends = new long[sorted.length];
+            long[] ids = new long[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                starts[i] = toKey(sorted[i].getStartTime());
+                ends[i] = toKey(sorted[i].getEndTime());
+                ids[i] = sorted[i].getId();
+            }
+            return new Intervals(starts, ends, ids);
+        }
+
+        /**
+         * Same predicate as the overlap query: start < proposedEnd and end > proposedStart.
+         */
+        boolean overlaps(long from, long to) {
+            int k = countStartingBefore(to);
+            return k > 0 && maxEnds[k - 1] > from;
+        }
+
+        void collectOverlapping(long from, long to, Collection<Long> out) {
+            for (int i = countStartingBefore(to) - 1; i >= 0 && maxEnds[i] > from; i--) {
+                if (ends[i] > from) {
+                    out.add(matchIds[i]);
+                }
+            }
+        }
+
+        void collectBusy(long from, long to, List<long[]> out) {
+            // maxEnds is non-decreasing: skip straight to the first interval that can end after from
+            int lo = 0;
+            int hi = maxEnds.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (maxEnds[mid] <= from) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            int k = countStartingBefore(to);
+            for (int i = lo; i < k; i++) {
+                if (ends[i] > from) {
+                    out.add(new long[] { starts[i], ends[i] });
+                }
+            }
+        }
+
+        Intervals with(long matchId, long start, long end) {
+            if (indexOf(matchId) >= 0) {
+                return this;
+            }
+            int n = starts.length;
+            int pos = countStartingBefore(start);
+            long[] s = new long[n + 1];
+            long[] e = new long[n + 1];
+            long[] ids = new long[n + 1];
+            System.arraycopy(starts, 0, s, 0, pos);
+            System.arraycopy(ends, 0, e, 0, pos);
+            System.arraycopy(matchIds, 0, ids, 0, pos);
+            s[pos] = start;
+            e[pos] = end;
+            ids[pos] = matchId;
+            System.arraycopy(starts, pos, s, pos + 1, n - pos);
+            System.arraycopy(ends, pos, e, pos + 1, n - pos);
+            System.arraycopy(matchIds, pos, ids, pos + 1, n - pos);
+            return new Intervals(s, e, ids);
+        }
+
+        Intervals without(long matchId) {
+            int i = indexOf(matchId);
+            if (i < 0) {
+                return this;
+            }
+            int n = starts.length;
+            long[] s = new long[n - 1];
+            long[] e = new long[n - 1];
+            long[] ids = new long[n - 1];
+            System.arraycopy(starts, 0, s, 0, i);
+            System.arraycopy(ends, 0, e, 0, i);
+            System.arraycopy(matchIds, 0, ids, 0, i);
+            System.arraycopy(starts, i + 1, s, i, n - i - 1);
+            System.arraycopy(ends, i + 1, e, i, n - i - 1);
+            System.arraycopy(matchIds, i + 1, ids, i, n - i - 1);
+            return new Intervals(s, e, ids);
+        }
+
+        // number of intervals whose start is strictly before the given key
+        private int countStartingBefore(long key) {
+            int lo = 0;
+            int hi = starts.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (starts[mid] < key) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        private int indexOf(long matchId) {
+            for (int i = 0; i < matchIds.length; i++) {
+                if (matchIds[i] == matchId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package org.example.tennistournament.service;
+
+import org.example.tennistournament.model.MatchPointEvent;
+import org.example.tennistournament.model.MatchScore;
+
+import java.util.Arrays;
+
+/**
+ * Point-by-point state of one match: games to four points with two clear (deuce and
+ * advantage), sets to six games with two clear and a tiebreak to seven at 6-6, best of
+ * 3 or 5 sets. Undo drops the last point and replays the rest, which costs a few hundred
+ * steps at most. Not thread-safe: {@link PointScoringService} guards each state.
+ */
+public final class MatchPointState {
+
+    private static final String[] GAME_POINTS = { "0", "15", "30", "40" };
+
+    private final int bestOf;
+    private final int need;
+
+    // points in effect, in order (undone points are removed)
+    private byte[] points = new byte[256];
+    private int length;
+
+    // derived from the points
+    private final int[][] games = new int[MatchScore.MAX_SETS][2];
+    private final int[] tiebreakLoserPoints = new int[MatchScore.MAX_SETS];
+    private int set;
+    private int points1;
+    private int points2;
+    private int sets1;
+    private int sets2;
+    private int winner;
+
+    public MatchPointState(int bestOf) {
+        if (bestOf != 3 && bestOf != 5) {
+            throw new IllegalArgumentException("Matches are best of 3 or 5 sets");
+        }
+        this.bestOf = bestOf;
+        this.need = bestOf / 2 + 1;
+        reset();
+    }
+
+    /**
+     * Applies a logged event: a point to player 1 or 2, or an undo.
+     *
+     * @throws IllegalArgumentException if the match is decided or there is nothing to undo
+     */
+    public void apply(byte kind) {
+        switch (kind) {
+            case MatchPointEvent.POINT_PLAYER1, MatchPointEvent.POINT_PLAYER2 -> point(kind);
+            case MatchPointEvent.UNDO -> undo();
+            default -> throw new IllegalArgumentException("Unknown point event " + kind);
+        }
+    }
+
+    private void point(int player) {
+        if (winner != 0) {
+            throw new IllegalArgumentException("Match is already decided!");
+        }
+        if (length == points.length) {
+            points = Arrays.copyOf(points, length * 2);
+        }
+        points[length++] = (byte) player;
+        advance(player);
+    }
+
+    private void undo() {
+        if (length == 0) {
+            throw new IllegalArgumentException("Nothing to undo!");
+        }
+        length--;
+        reset();
+        for (int i = 0; i < length; i++) {
+            advance(points[i]);
+        }
+    }
+
+    private void reset() {
+        for (int[] g : games) {
+            g[0] = 0;
+            g[1] = 0;
+        }
+        Arrays.fill(tiebreakLoserPoints, -1);
+        set = 0;
+        points1 = 0;
+        points2 = 0;
+        sets1 = 0;
+        sets2 = 0;
+        winner = 0;
+    }
+
+    private void advance(int player) {
+        if (player == 1) {
+            points1++;
+        } else {
+            points2++;
+        }
+        int mine = player == 1 ? points1 : points2;
+        int other = player == 1 ? points2 : points1;
+        boolean tiebreak = isTiebreak();
+        if (mine >= (tiebreak ? 7 : 4) && mine - other >= 2) {
+            if (tiebreak) {
+                tiebreakLoserPoints[set] = other;
+            }
+            winGame(player, tiebreak);
+        }
+    }
+
+    private void winGame(int player, boolean tiebreak) {
+        points1 = 0;
+        points2 = 0;
+        int[] g = games[set];
+        g[player - 1]++;
+        int mine = g[player - 1];
+        int other = g[2 - player];
+        if (!tiebreak && !(mine >= 6 && mine - other >= 2)) {
+            return;
+        }
+        int won = player == 1 ? ++sets1 : ++sets2;
+        if (won == need) {
+            winner = player;
+        } else {
+            set++;
+        }
+    }
+
+    // --- accessors ---
+
+    public boolean isTiebreak() {
+        return games[set][0] == 6 && games[set][1] == 6;
+    }
+
+    public int getWinner() {
+        return winner;
+    }
+
+    public boolean isFinished() {
+        return winner != 0;
+    }
+
+    public int getCompletedSets() {
+        return sets1 + sets2;
+    }
+
+    /**
+     * The completed sets as a validated score; this is what the match row stores.
+     */
+    public MatchScore getCompletedScore() {
+        return MatchScore.parse(appendSets(new StringBuilder(), getCompletedSets()), bestOf);
+    }
+
+    /**
+     * Completed sets and the games of the set in play, e.g. {@code 6-4,3-2}.
+     */
+    public String getScoreText() {
+        int shown = winner != 0 ? getCompletedSets() : getCompletedSets() + 1;
+        return appendSets(new StringBuilder(), shown).toString();
+    }
+
+    /**
+     * Points of the game in play: {@code 30-15}, {@code 40-AD} or tiebreak points; empty once decided.
+     */
+    public String getGameText() {
+        if (winner != 0) {
+            return "";
+        }
+        if (isTiebreak()) {
+            return points1 + "-" + points2;
+        }
+        if (points1 >= 3 && points2 >= 3) {
+            return points1 == points2 ? "40-40" : points1 > points2 ? "AD-40" : "40-AD";
+        }
+        return GAME_POINTS[points1] + "-" + GAME_POINTS[points2];
+    }
+
+    private StringBuilder appendSets(StringBuilder sb, int count) {
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(games[i][0]).append('-').append(games[i][1]);
+            if (tiebreakLoserPoints[i] >= 0) {
+                sb.append('(').append(tiebreakLoserPoints[i]).append(')');
+            }
+        }
+        return sb;
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.tennistournament.service;
+
+import org.example.tennistournament.exception.ServiceOverloadedException;
+import org.example.tennistournament.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes schedule writes on the participants they involve, so two writers cannot both pass
+ * the overlap check for the same player or referee. Writers touching disjoint participants run
+ * in parallel.
+ * <p>
+ * In process: a fixed array of striped locks keyed by user id, taken in stripe order and
+ * released after the transaction completes (after the interval index has seen the commit).
+ * In the database: the participants' user rows are locked {@code FOR UPDATE} in id order.
+ * That serializes writers on other instances too; the overlap check then reads what they
+ * committed, because every "no conflict" answer of the interval index is confirmed with a
+ * locking read ({@code TennisMatchRepository.lockOverlappingMatchIds}).
+ */
+@Component
+public class ParticipantLocks {
+
+    private final ReentrantLock[] stripes;
+    private final UserRepository userRepository;
+    private final long timeoutMillis;
+
+    public ParticipantLocks(UserRepository userRepository,
+                            @Value("${application.scheduling.lock-stripes:256}") int stripeCount,
+                            @Value("${application.scheduling.lock-timeout:PT10S}") Duration timeout) {
+        this.userRepository = userRepository;
+        this.stripes = new ReentrantLock[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    /**
+     * Locks the participants until the current transaction completes. Must be called inside a
+     * transaction, before the overlap check.
+     */
+    public void lockForTransaction(Collection<Long> participantIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Participant locks need an active transaction");
+        }
+        TreeSet<Long> ids = new TreeSet<>();
+        TreeSet<Integer> stripeIndexes = new TreeSet<>();
+        for (Long id : participantIds) {
+            if (id != null) {
+                ids.add(id);
+                stripeIndexes.add(stripeOf(id));
+            }
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        List<ReentrantLock> held = new ArrayList<>(stripeIndexes.size());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                for (int i = held.size() - 1; i >= 0; i--) {
+                    held.get(i).unlock();
+                }
+            }
+        });
+        for (int index : stripeIndexes) {
+            ReentrantLock lock = stripes[index];
+            if (!tryLock(lock)) {
+                throw new ServiceOverloadedException(
+                        "Schedule of these participants is being changed, please retry shortly", 1);
+            }
+            held.add(lock);
+        }
+        userRepository.lockAllByIdIn(ids);
+    }
+
+    private boolean tryLock(ReentrantLock lock) {
+        try {
+            return lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a participant lock", ex);
+        }
+    }
+
+    private int stripeOf(Long id) {
+        return Math.floorMod(Long.hashCode(id) * 0x9E3779B9, stripes.length);
+    }
+}
@@ -0,0 +1,447 @@
+package org.example.tennistournament.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.tennistournament.dto.PointScoreDto;
+import org.example.tennistournament.event.MatchScheduleChangedEvent;
+import org.example.tennistournament.event.MatchScoreUpdatedEvent;
+import org.example.tennistournament.exception.ServiceOverloadedException;
+import org.example.tennistournament.model.MatchPointEvent;
+import org.example.tennistournament.model.MatchScore;
+import org.example.tennistournament.model.TennisMatch;
+import org.example.tennistournament.repository.MatchPointEventRepository;
+import org.example.tennistournament.repository.TennisMatchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Point-by-point scoring for referees. Each match in play has an in-memory
+ * {@link MatchPointState}, built on first use by replaying its point log; a point or undo is
+ * applied to it and appended to a write-behind buffer, so the request does no database work.
+ * <p>
+ * The buffer is written as one JDBC batch every flush interval, or sooner once it holds
+ * flush-size events. When a point completes a set or the match (or an undo reopens one), the
+ * buffered events and the new score of the match row are written in one transaction, so the
+ * stored score never runs ahead of the log. A failed write is retried, unless the database
+ * rejects an event for good (a constraint violation): then that match's events are dropped with
+ * an error log and its state is evicted, so one bad event cannot block the log for every match.
+ * A score entered as a whole evicts the state; such
+ * a match is then scored as a whole only. Moving a match or changing its referee evicts the
+ * state too, and every score commit checks the referee and time window against the match row.
+ * <p>
+ * Single instance: the state of a match lives in the process that scores it.
+ */
+@Service
+public class PointScoringService {
+
+    private static final Logger log = LoggerFactory.getLogger(PointScoringService.class);
+
+    private static final String INSERT_EVENT =
+            "INSERT INTO match_point_event (match_id, seq, kind, recorded_at) VALUES (?, ?, ?, ?)";
+
+    private final TennisMatchRepository tennisMatchRepository;
+    private final MatchPointEventRepository matchPointEventRepository;
+    private final TennisMatchService tennisMatchService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int bestOf;
+    private final int flushSize;
+    private final int backlogLimit;
+
+    private final Map<Long, LiveMatch> matches = new ConcurrentHashMap<>();
+    // events not yet written, in the order they were recorded; guarded by itself
+    private final List<PendingEvent> buffer = new ArrayList<>();
+    // one flush at a time, so a match's events reach the table in seq order; a score commit
+    // takes it only to drain its match's events, and the match's monitor keeps the rest in order
+    private final Object flushLock = new Object();
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+    private final ScheduledExecutorService writer;
+
+    public PointScoringService(TennisMatchRepository tennisMatchRepository,
+                               MatchPointEventRepository matchPointEventRepository,
+                               TennisMatchService tennisMatchService,
+                               JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${application.scoring.best-of:3}") int bestOf,
+                               @Value("${application.scoring.point-flush-interval:PT0.5S}") Duration flushInterval,
+                               @Value("${application.scoring.point-flush-size:200}") int flushSize) {
+        this.tennisMatchRepository = tennisMatchRepository;
+        this.matchPointEventRepository = matchPointEventRepository;
+        this.tennisMatchService = tennisMatchService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.bestOf = bestOf;
+        this.flushSize = Math.max(1, flushSize);
+        // while the database is unreachable, referees are turned away instead of filling the heap
+        this.backlogLimit = this.flushSize * 50;
+        this.writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "point-log-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = Math.max(1, flushInterval.toMillis());
+        writer.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Records a point won by player 1 or 2.
+     */
+    public PointScoreDto recordPoint(Long matchId, int player, Long currentUserId, boolean admin) {
+        if (player != 1 && player != 2) {
+            throw new IllegalArgumentException("Player must be 1 or 2!");
+        }
+        return record(matchId, (byte) player, currentUserId, admin);
+    }
+
+    /**
+     * Takes back the last point of the match.
+     */
+    public PointScoreDto undoPoint(Long matchId, Long currentUserId, boolean admin) {
+        return record(matchId, MatchPointEvent.UNDO, currentUserId, admin);
+    }
+
+    private PointScoreDto record(Long matchId, byte kind, Long currentUserId, boolean admin) {
+        if (buffered() >= backlogLimit) {
+            throw new ServiceOverloadedException("Point log is behind, please retry shortly", 1);
+        }
+        while (true) {
+            LiveMatch live = liveMatch(matchId);
+            synchronized (live) {
+                if (live.evicted) {
+                    continue; // replaced while we waited
+                }
+                authorize(live.refereeId, live.startTime, live.endTime, live.tournamentEndDate, currentUserId, admin);
+                live.state.apply(kind);
+                PendingEvent event = new PendingEvent(matchId, ++live.seq, kind, LocalDateTime.now());
+                if (live.state.getCompletedSets() != live.committedSets) {
+                    commitScore(live, event, currentUserId, admin);
+                } else {
+                    enqueue(event);
+                }
+                return new PointScoreDto(matchId, live.seq, live.state,
+                        live.state.getWinner() == 1 ? live.player1Id
+                                : live.state.getWinner() == 2 ? live.player2Id : null);
+            }
+        }
+    }
+
+    private static void authorize(Long refereeId, LocalDateTime startTime, LocalDateTime endTime,
+                                  LocalDate tournamentEndDate, Long currentUserId, boolean admin) {
+        if (!admin) {
+            if (!refereeId.equals(currentUserId)) {
+                throw new ResponseStatusException(
+                        HttpStatus.FORBIDDEN, "You are not the assigned referee for this match!");
+            }
+            LocalDateTime now = LocalDateTime.now();
+            if (now.isBefore(startTime) || now.isAfter(endTime)) {
+                throw new IllegalArgumentException("Cannot update score outside of match time!");
+            }
+        }
+        if (tournamentEndDate != null && LocalDate.now().isAfter(tournamentEndDate)) {
+            throw new IllegalArgumentException("Cannot update score after the tournament's end date!");
+        }
+    }
+
+    /**
+     * Writes the match's buffered events and its new completed score together, after checking
+     * the referee and time window against the match row once more. On failure the state is
+     * dropped and rebuilt from the log on the next request.
+     * <p>
+     * Only taking the match's events out of the buffer waits for the flush lock; the transaction
+     * runs under the match's monitor alone, so other matches and the flusher carry on meanwhile.
+     */
+    private void commitScore(LiveMatch live, PendingEvent event, Long currentUserId, boolean admin) {
+        MatchScore score = live.state.getCompletedScore();
+        MatchScore committed = live.committedScore;
+        // the score event of this commit must not evict the state
+        live.committedScore = score;
+        List<PendingEvent> batch;
+        synchronized (flushLock) {
+            // a flush in progress may hold earlier events of the match: it finishes first
+            batch = drain(live.matchId);
+        }
+        batch.add(event);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                TennisMatch match = tennisMatchRepository.findById(live.matchId)
+                        .orElseThrow(() -> new ResponseStatusException(
+                                HttpStatus.NOT_FOUND, "Match not found!"));
+                authorize(match.getReferee().getId(), match.getStartTime(), match.getEndTime(),
+                        match.getTournament() != null ? match.getTournament().getEndDate() : null,
+                        currentUserId, admin);
+                insert(batch);
+                tennisMatchService.recordPointScore(live.matchId, score, currentUserId);
+            });
+        } catch (RuntimeException ex) {
+            live.committedScore = committed;
+            batch.remove(batch.size() - 1);
+            requeue(batch);
+            evict(live);
+            throw ex;
+        }
+        live.committedSets = live.state.getCompletedSets();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onScoreUpdated(MatchScoreUpdatedEvent event) {
+        LiveMatch live = matches.get(event.matchId());
+        if (live == null) {
+            return;
+        }
+        MatchScore stored = event.score() != null ? event.score() : MatchScore.EMPTY;
+        synchronized (live) {
+            if (!stored.equals(live.committedScore)) {
+                evict(live);
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onScheduleChanged(MatchScheduleChangedEvent event) {
+        LiveMatch live = matches.get(event.matchId());
+        if (live != null) {
+            synchronized (live) {
+                evict(live); // reloaded with the new referee and times; buffered events stay
+            }
+        }
+    }
+
+    /**
+     * Drops the state and the unwritten events of matches once their deletion commits.
+     */
+    public void forgetAfterCommit(Collection<Long> matchIds) {
+        Set<Long> ids = new HashSet<>(matchIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                for (Long id : ids) {
+                    LiveMatch live = matches.get(id);
+                    if (live != null) {
+                        synchronized (live) {
+                            evict(live);
+                        }
+                    }
+                }
+                synchronized (buffer) {
+                    buffer.removeIf(e -> ids.contains(e.matchId));
+                }
+            }
+        });
+    }
+
+    // --- state ---
+
+    private LiveMatch liveMatch(Long matchId) {
+        LiveMatch live = matches.get(matchId);
+        if (live != null) {
+            return live;
+        }
+        LiveMatch loaded = load(matchId);
+        LiveMatch raced = matches.putIfAbsent(matchId, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    private LiveMatch load(Long matchId) {
+        TennisMatch match = tennisMatchRepository.findById(matchId)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "Match not found!"));
+        // the log must be complete before it is replayed
+        flush();
+        if (isBuffered(matchId)) {
+            // the write failed and will be retried; replaying now would reuse sequence numbers
+            throw new ServiceOverloadedException("Point log is behind, please retry shortly", 1);
+        }
+        MatchPointState state = new MatchPointState(bestOf);
+        List<Byte> kinds = matchPointEventRepository.findKindsByMatchId(matchId);
+        kinds.forEach(state::apply);
+        MatchScore stored = match.getMatchScore() != null ? match.getMatchScore() : MatchScore.EMPTY;
+        if (!state.getCompletedScore().equals(stored)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "The score of this match was entered as a whole; update it as a whole!");
+        }
+        return new LiveMatch(match, state, kinds.size(), stored);
+    }
+
+    // caller holds the match's monitor, except when the flush drops a match's events
+    private void evict(LiveMatch live) {
+        live.evicted = true;
+        matches.remove(live.matchId, live);
+    }
+
+    // --- write-behind log ---
+
+    private void enqueue(PendingEvent event) {
+        int size;
+        synchronized (buffer) {
+            buffer.add(event);
+            size = buffer.size();
+        }
+        if (size >= flushSize && flushQueued.compareAndSet(false, true)) {
+            writer.execute(() -> {
+                flushQueued.set(false);
+                flush();
+            });
+        }
+    }
+
+    /**
+     * Writes the buffered events as one batch; on failure they stay buffered for the next run.
+     */
+    void flush() {
+        synchronized (flushLock) {
+            List<PendingEvent> batch = drain();
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(batch));
+            } catch (DataIntegrityViolationException ex) {
+                flushByMatch(batch);
+            } catch (DataAccessException ex) {
+                log.warn("Writing {} point events failed, will retry: {}", batch.size(), ex.getMessage());
+                requeue(batch);
+            }
+        }
+    }
+
+    /**
+     * Writes the batch match by match, to find the matches whose events can never be written.
+     * Their events are dropped; the others are written or, on a transient failure, retried.
+     */
+    private void flushByMatch(List<PendingEvent> batch) {
+        Map<Long, List<PendingEvent>> byMatch = new LinkedHashMap<>();
+        batch.forEach(e -> byMatch.computeIfAbsent(e.matchId, id -> new ArrayList<>()).add(e));
+        List<PendingEvent> retry = new ArrayList<>();
+        byMatch.forEach((matchId, events) -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(events));
+            } catch (DataIntegrityViolationException ex) {
+                log.error("Dropping {} point events of match {}, the database rejects them: {}",
+                        events.size(), matchId, ex.getMessage());
+                LiveMatch live = matches.get(matchId);
+                if (live != null) {
+                    evict(live); // not under its monitor: that would invert the lock order
+                }
+            } catch (DataAccessException ex) {
+                retry.addAll(events);
+            }
+        });
+        if (!retry.isEmpty()) {
+            log.warn("Writing {} point events failed, will retry", retry.size());
+            requeue(retry);
+        }
+    }
+
+    private void insert(List<PendingEvent> batch) {
+        jdbcTemplate.batchUpdate(INSERT_EVENT, batch, batch.size(), (ps, e) -> {
+            ps.setLong(1, e.matchId);
+            ps.setInt(2, e.seq);
+            ps.setByte(3, e.kind);
+            ps.setTimestamp(4, Timestamp.valueOf(e.recordedAt));
+        });
+    }
+
+    private List<PendingEvent> drain() {
+        synchronized (buffer) {
+            List<PendingEvent> batch = new ArrayList<>(buffer);
+            buffer.clear();
+            return batch;
+        }
+    }
+
+    private List<PendingEvent> drain(Long matchId) {
+        synchronized (buffer) {
+            List<PendingEvent> batch = new ArrayList<>();
+            buffer.removeIf(e -> e.matchId.equals(matchId) && batch.add(e));
+            return batch;
+        }
+    }
+
+    private void requeue(List<PendingEvent> batch) {
+        synchronized (buffer) {
+            buffer.addAll(0, batch);
+        }
+    }
+
+    private boolean isBuffered(Long matchId) {
+        synchronized (buffer) {
+            return buffer.stream().anyMatch(e -> e.matchId.equals(matchId));
+        }
+    }
+
+    private int buffered() {
+        synchronized (buffer) {
+            return buffer.size();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        writer.shutdown();
+        flush();
+    }
+
+    private record PendingEvent(Long matchId, int seq, byte kind, LocalDateTime recordedAt) {
+    }
+
+    private static final class LiveMatch {
+
+        final Long matchId;
+        final Long refereeId;
+        final Long player1Id;
+        final Long player2Id;
+        final LocalDateTime startTime;
+        final LocalDateTime endTime;
+        final LocalDate tournamentEndDate;
+        final MatchPointState state;
+        // events in the log (written or buffered)
+        int seq;
+        // score of the match row and the sets it covers
+        MatchScore committedScore;
+        int committedSets;
+        volatile boolean evicted;
+
+        LiveMatch(TennisMatch match, MatchPointState state, int seq, MatchScore committedScore) {
+            this.matchId = match.getId();
+            this.refereeId = match.getReferee().getId();
+            this.player1Id = match.getPlayer1().getId();
+            this.player2Id = match.getPlayer2().getId();
+            this.startTime = match.getStartTime();
+            this.endTime = match.getEndTime();
+            this.tournamentEndDate = match.getTournament() != null ? match.getTournament().getEndDate() : null;
+            this.state = state;
+            this.seq = seq;
+            this.committedScore = committedScore;
+            this.committedSets = state.getCompletedSets();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package org.example.tennistournament.service;
+
+import org.example.tennistournament.dto.RefereeRebalanceResultDto;
+import org.example.tennistournament.event.MatchScheduleChangedEvent;
+import org.example.tennistournament.model.Role;
+import org.example.tennistournament.model.TennisMatch;
+import org.example.tennistournament.model.User;
+import org.example.tennistournament.repository.TennisMatchRepository;
+import org.example.tennistournament.repository.TennisMatchRepository.MatchInterval;
+import org.example.tennistournament.repository.TournamentRepository;
+import org.example.tennistournament.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Picks referees for matches: the least loaded referee (minutes assigned in the tournament)
+ * that is free for the slot. Used for single suggestions, for matches created without a referee,
+ * for the draw generator and to rebalance a whole tournament.
+ */
+@Service
+@Transactional
+public class RefereeAssignmentService {
+
+    private final TennisMatchRepository tennisMatchRepository;
+    private final TournamentRepository tournamentRepository;
+    private final UserRepository userRepository;
+    private final MatchIntervalIndex matchIntervalIndex;
+    private final ParticipantLocks participantLocks;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public RefereeAssignmentService(TennisMatchRepository tennisMatchRepository,
+                                    TournamentRepository tournamentRepository,
+                                    UserRepository userRepository,
+                                    MatchIntervalIndex matchIntervalIndex,
+                                    ParticipantLocks participantLocks,
+                                    ApplicationEventPublisher eventPublisher) {
+        this.tennisMatchRepository = tennisMatchRepository;
+        this.tournamentRepository = tournamentRepository;
+        this.userRepository = userRepository;
+        this.matchIntervalIndex = matchIntervalIndex;
+        this.participantLocks = participantLocks;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public User suggestReferee(Long tournamentId, LocalDateTime startTime, LocalDateTime endTime) {
+        if (!tournamentRepository.existsById(tournamentId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Tournament not found!");
+        }
+        if (startTime.isAfter(endTime)) {
+            throw new IllegalArgumentException("Start time cannot be after end time!");
+        }
+        Long refereeId = newPool(tournamentId, null, Set.of()).suggest(startTime, endTime);
+        if (refereeId == null) {
+            throw new IllegalArgumentException("No referee is free for this time slot!");
+        }
+        return userRepository.findById(refereeId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Referee not found!"));
+    }
+
+    /**
+     * Pool over the given referees (all REFEREE users if null), loaded with the minutes they
+     * already referee in the tournament, not counting the ignored matches.
+     */
+    public RefereePool newPool(Long tournamentId, Collection<Long> refereeIds, Set<Long> ignoredMatchIds) {
+        Map<Long, Long> minutes = new HashMap<>();
+        List<User> referees = refereeIds != null
+                ? userRepository.findAllById(refereeIds)
+                : userRepository.findAllByRole(Role.REFEREE);
+        for (User u : referees) {
+            if (u.getRole() == Role.REFEREE) {
+                minutes.put(u.getId(), 0L);
+            }
+        }
+        for (MatchInterval m : tennisMatchRepository.findIntervalsByTournament(tournamentId)) {
+            if (!ignoredMatchIds.contains(m.getId()) && minutes.containsKey(m.getRefereeId())) {
+                minutes.merge(m.getRefereeId(),
+                        Math.max(0, Duration.between(m.getStartTime(), m.getEndTime()).toMinutes()), Long::sum);
+            }
+        }
+        matchIntervalIndex.warmTournament(tournamentId);
+        return new RefereePool(minutes, ignoredMatchIds, matchIntervalIndex);
+    }
+
+    /**
+     * Reassigns the referees of every upcoming, unscored match of the tournament, in start order,
+     * each to the least loaded referee free at that time. Started or scored matches keep theirs
+     * and count towards the load. All or nothing: if a match finds no free referee nothing changes.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    public RefereeRebalanceResultDto rebalanceTournament(Long tournamentId) {
+        if (!tournamentRepository.existsById(tournamentId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Tournament not found!");
+        }
+        // every referee may receive a match, so all of them are locked for the rebalance
+        participantLocks.lockForTransaction(
+                userRepository.findAllByRole(Role.REFEREE).stream().map(User::getId).toList());
+        LocalDateTime now = LocalDateTime.now();
+        List<TennisMatch> upcoming = tennisMatchRepository.findByTournamentId(tournamentId).stream()
+                .filter(m -> m.getStartTime().isAfter(now))
+                .filter(m -> !m.hasScore())
+                .sorted(Comparator.comparing(TennisMatch::getStartTime).thenComparing(TennisMatch::getId))
+                .toList();
+        Set<Long> upcomingIds = new HashSet<>();
+        upcoming.forEach(m -> upcomingIds.add(m.getId()));
+
+        RefereePool pool = newPool(tournamentId, null, upcomingIds);
+        RefereeRebalanceResultDto result = new RefereeRebalanceResultDto();
+        result.matches = upcoming.size();
+        for (TennisMatch match : upcoming) {
+            Long refereeId = pool.assign(match.getStartTime(), match.getEndTime());
+            if (refereeId == null) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "No free referee for match " + match.getId() + ", nothing was reassigned!");
+            }
+            if (!refereeId.equals(match.getReferee().getId())) {
+                List<Long> previous = MatchIntervalIndex.participantsOf(match);
+                match.setReferee(userRepository.getReferenceById(refereeId));
+                tennisMatchRepository.save(match);
+                matchIntervalIndex.replaceAfterCommit(previous, match);
+                eventPublisher.publishEvent(new MatchScheduleChangedEvent(match.getId()));
+                result.reassigned++;
+            }
+        }
+        result.minutesByReferee.putAll(pool.getMinutesByReferee());
+        return result;
+    }
+}
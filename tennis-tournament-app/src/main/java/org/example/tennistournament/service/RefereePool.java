@@ -0,0 +1,109 @@
+package org.example.tennistournament.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Working set for assigning referees to many slots: a priority queue of referees keyed by the
+ * minutes already assigned to them, plus the intervals assigned through this pool that are not
+ * committed yet. Committed matches are checked through the interval index, and a free slot is
+ * confirmed against the matches table ({@link MatchIntervalIndex#findConflictsForWrite}); the
+ * matches listed as ignored (the ones being reassigned) do not count as busy time.
+ * Not thread-safe: one pool per request.
+ */
+public final class RefereePool {
+
+    private record Load(Long refereeId, long minutes) {}
+
+    private final PriorityQueue<Load> queue = new PriorityQueue<>(
+            Comparator.comparingLong(Load::minutes).thenComparing(Load::refereeId));
+    private final Map<Long, Long> minutes = new HashMap<>();
+    // refereeId -> (start key -> end key) of intervals assigned through this pool
+    private final Map<Long, TreeMap<Long, Long>> pending = new HashMap<>();
+
+    private final MatchIntervalIndex matchIntervalIndex;
+    private final Set<Long> ignoredMatchIds;
+
+    RefereePool(Map<Long, Long> initialMinutes,
+                Set<Long> ignoredMatchIds,
+                MatchIntervalIndex matchIntervalIndex) {
+        this.ignoredMatchIds = ignoredMatchIds;
+        this.matchIntervalIndex = matchIntervalIndex;
+        initialMinutes.forEach((id, m) -> {
+            minutes.put(id, m);
+            queue.add(new Load(id, m));
+        });
+    }
+
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    /**
+     * The least loaded referee free during [start, end), or null; nothing is recorded.
+     */
+    public Long suggest(LocalDateTime start, LocalDateTime end) {
+        return pick(start, end, false);
+    }
+
+    /**
+     * Like {@link #suggest} but books the slot: the referee becomes busy and its load grows.
+     */
+    public Long assign(LocalDateTime start, LocalDateTime end) {
+        return pick(start, end, true);
+    }
+
+    public Map<Long, Long> getMinutesByReferee() {
+        return minutes;
+    }
+
+    private Long pick(LocalDateTime start, LocalDateTime end, boolean book) {
+        List<Load> skipped = new ArrayList<>();
+        Load chosen = null;
+        while (!queue.isEmpty()) {
+            Load load = queue.poll();
+            if (isFree(load.refereeId(), start, end)) {
+                chosen = load;
+                break;
+            }
+            skipped.add(load);
+        }
+        queue.addAll(skipped);
+        if (chosen == null) {
+            return null;
+        }
+        if (!book) {
+            queue.add(chosen);
+            return chosen.refereeId();
+        }
+        long total = chosen.minutes() + Math.max(0, Duration.between(start, end).toMinutes());
+        minutes.put(chosen.refereeId(), total);
+        queue.add(new Load(chosen.refereeId(), total));
+        pending.computeIfAbsent(chosen.refereeId(), id -> new TreeMap<>())
+                .put(MatchIntervalIndex.toKey(start), MatchIntervalIndex.toKey(end));
+        return chosen.refereeId();
+    }
+
+    private boolean isFree(Long refereeId, LocalDateTime start, LocalDateTime end) {
+        long from = MatchIntervalIndex.toKey(start);
+        long to = MatchIntervalIndex.toKey(end);
+        TreeMap<Long, Long> booked = pending.get(refereeId);
+        if (booked != null) {
+            // booked intervals never overlap each other, so their ends grow with their starts and
+            // only the last one starting before our end can reach into our slot
+            Map.Entry<Long, Long> last = booked.lowerEntry(to);
+            if (last != null && last.getValue() > from) {
+                return false;
+            }
+        }
+        return matchIntervalIndex.findConflictsForWrite(List.of(refereeId), start, end, ignoredMatchIds).isEmpty();
+    }
+}
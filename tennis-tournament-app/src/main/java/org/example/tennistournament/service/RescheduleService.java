@@ -0,0 +1,243 @@
+package org.example.tennistournament.service;
+
+import org.example.tennistournament.dto.MatchDto;
+import org.example.tennistournament.dto.RescheduleRequestDto;
+import org.example.tennistournament.dto.RescheduleResultDto;
+import org.example.tennistournament.event.MatchScheduleChangedEvent;
+import org.example.tennistournament.model.Court;
+import org.example.tennistournament.model.TennisMatch;
+import org.example.tennistournament.model.Tournament;
+import org.example.tennistournament.repository.TennisMatchRepository;
+import org.example.tennistournament.repository.TournamentRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Moves a set of matches by the same delta (rain delays): the new layout is checked in memory
+ * against the participants' interval data and the court bitmaps, then applied in one transaction.
+ * <p>
+ * A uniform shift keeps the selected matches clear of each other, so each one only has to be
+ * checked against the matches that stay where they are. A match that cannot move stays, which
+ * can block others; the check repeats until no more matches drop out.
+ */
+@Service
+@Transactional
+public class RescheduleService {
+
+    private final TennisMatchRepository tennisMatchRepository;
+    private final TournamentRepository tournamentRepository;
+    private final MatchIntervalIndex matchIntervalIndex;
+    private final ParticipantLocks participantLocks;
+    private final CourtService courtService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public RescheduleService(TennisMatchRepository tennisMatchRepository,
+                             TournamentRepository tournamentRepository,
+                             MatchIntervalIndex matchIntervalIndex,
+                             ParticipantLocks participantLocks,
+                             CourtService courtService,
+                             ApplicationEventPublisher eventPublisher) {
+        this.tennisMatchRepository = tennisMatchRepository;
+        this.tournamentRepository = tournamentRepository;
+        this.matchIntervalIndex = matchIntervalIndex;
+        this.participantLocks = participantLocks;
+        this.courtService = courtService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public RescheduleResultDto reschedule(Long tournamentId, RescheduleRequestDto request) {
+        Tournament tournament = tournamentRepository.findById(tournamentId)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "Tournament not found!"));
+        if ((request.shiftMinutes == null) == (request.windowStart == null)) {
+            throw new IllegalArgumentException("Give either a shift in minutes or a new window start!");
+        }
+
+        RescheduleResultDto result = new RescheduleResultDto();
+        List<TennisMatch> selected = select(tournamentId, request, result);
+        // ids that were not found are already reported as not moved
+        result.selected = selected.size() + result.notMoved.size();
+        if (selected.isEmpty()) {
+            return result;
+        }
+        long shift = request.shiftMinutes != null
+                ? request.shiftMinutes
+                : Duration.between(selected.get(0).getStartTime(), request.windowStart).toMinutes();
+        if (shift == 0) {
+            throw new IllegalArgumentException("The matches would not move!");
+        }
+        result.shiftMinutes = shift;
+
+        Set<Long> participants = new HashSet<>();
+        selected.forEach(m -> participants.addAll(MatchIntervalIndex.participantsOf(m)));
+        participantLocks.lockForTransaction(participants);
+        matchIntervalIndex.warmTournament(tournamentId);
+
+        // --- rules per match ---
+        Map<Long, String> failed = new LinkedHashMap<>();
+        Map<Long, TennisMatch> moving = new LinkedHashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (TennisMatch m : selected) {
+            LocalDateTime newStart = m.getStartTime().plusMinutes(shift);
+            LocalDateTime newEnd = m.getEndTime().plusMinutes(shift);
+            if (m.hasScore()) {
+                failed.put(m.getId(), "Match already has a score");
+            } else if (m.getStartTime().isBefore(now)) {
+                failed.put(m.getId(), "Match has already started");
+            } else if (newStart.toLocalDate().isBefore(tournament.getStartDate())
+                    || newStart.toLocalDate().isAfter(tournament.getEndDate())) {
+                failed.put(m.getId(), "Would move outside the tournament dates");
+            } else if (request.windowEnd != null && newEnd.isAfter(request.windowEnd)) {
+                failed.put(m.getId(), "Would end after the window");
+            } else {
+                moving.put(m.getId(), m);
+            }
+        }
+
+        // --- participants and courts, until nothing else drops out ---
+        CourtAllocator courts = null;
+        boolean changed = true;
+        while (changed && !moving.isEmpty()) {
+            changed = false;
+            for (TennisMatch m : new ArrayList<>(moving.values())) {
+                Long conflict = firstConflict(m, shift, moving.keySet());
+                if (conflict != null) {
+                    failed.put(m.getId(), "Conflicts with match " + conflict);
+                    moving.remove(m.getId());
+                    changed = true;
+                }
+            }
+            if (!changed) {
+                courts = courtService.openAllocator(tournamentId);
+                changed = !bookCourts(courts, moving, shift, failed);
+            }
+        }
+
+        selected.stream().filter(m -> failed.containsKey(m.getId()))
+                .forEach(m -> result.notMoved.add(new RescheduleResultDto.NotMoved(m.getId(), failed.get(m.getId()))));
+        if (moving.isEmpty() || (request.atomic && !result.notMoved.isEmpty())) {
+            return result;
+        }
+
+        // --- apply ---
+        for (TennisMatch m : moving.values()) {
+            List<Long> previous = MatchIntervalIndex.participantsOf(m);
+            m.setStartTime(m.getStartTime().plusMinutes(shift));
+            m.setEndTime(m.getEndTime().plusMinutes(shift));
+            matchIntervalIndex.replaceAfterCommit(previous, m);
+            eventPublisher.publishEvent(new MatchScheduleChangedEvent(m.getId()));
+        }
+        courts.flush();
+        try {
+            tennisMatchRepository.saveAllAndFlush(moving.values());
+        } catch (OptimisticLockingFailureException ex) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Matches were concurrently updated, nothing was moved!", ex);
+        }
+        moving.values().forEach(m -> result.matches.add(new MatchDto(m)));
+        result.moved = moving.size();
+        return result;
+    }
+
+    private List<TennisMatch> select(Long tournamentId, RescheduleRequestDto request, RescheduleResultDto result) {
+        List<TennisMatch> selected;
+        if (request.matchIds != null && !request.matchIds.isEmpty()) {
+            Set<Long> wanted = new HashSet<>(request.matchIds);
+            selected = new ArrayList<>();
+            for (TennisMatch m : tennisMatchRepository.findAllById(wanted)) {
+                if (m.getTournament().getId().equals(tournamentId)) {
+                    selected.add(m);
+                    wanted.remove(m.getId());
+                }
+            }
+            wanted.forEach(id -> result.notMoved.add(
+                    new RescheduleResultDto.NotMoved(id, "Not a match of this tournament")));
+        } else if (request.date != null) {
+            LocalDate day = request.date;
+            LocalDateTime from = day.atTime(request.fromTime != null ? request.fromTime : LocalTime.MIDNIGHT);
+            LocalDateTime to = request.untilTime != null ? day.atTime(request.untilTime) : day.plusDays(1).atStartOfDay();
+            selected = new ArrayList<>(tennisMatchRepository.findByTournamentStartingBetween(tournamentId, from, to));
+        } else {
+            throw new IllegalArgumentException("Select the matches by id or by date!");
+        }
+        selected.sort(Comparator.comparing(TennisMatch::getStartTime).thenComparing(TennisMatch::getId));
+        return selected;
+    }
+
+    /**
+     * First match that keeps a participant busy at the new time and is not moving itself.
+     */
+    private Long firstConflict(TennisMatch m, long shift, Collection<Long> movingIds) {
+        List<Long> participants = MatchIntervalIndex.participantsOf(m);
+        LocalDateTime start = m.getStartTime().plusMinutes(shift);
+        LocalDateTime end = m.getEndTime().plusMinutes(shift);
+        List<Long> conflicts = matchIntervalIndex.findConflictsForWrite(participants, start, end, movingIds);
+        return conflicts.isEmpty() ? null : conflicts.get(0);
+    }
+
+    /**
+     * Frees the current court slots of the moving matches and books the new ones, on the same
+     * court if possible. Returns false if some match found no court (it is moved to failed).
+     */
+    private static boolean bookCourts(CourtAllocator courts,
+                                      Map<Long, TennisMatch> moving,
+                                      long shift,
+                                      Map<Long, String> failed) {
+        if (courts.isEmpty()) {
+            return true;
+        }
+        for (TennisMatch m : moving.values()) {
+            courts.release(m.getCourt(), m.getStartTime(), m.getEndTime());
+        }
+        Map<Long, Court> booked = new HashMap<>();
+        boolean allBooked = true;
+        for (TennisMatch m : new ArrayList<>(moving.values())) {
+            if (m.getCourt() == null) {
+                continue; // created before the tournament had courts
+            }
+            LocalDateTime start = m.getStartTime().plusMinutes(shift);
+            LocalDateTime end = m.getEndTime().plusMinutes(shift);
+            String reason;
+            try {
+                Court court = courts.reserve(start, end, m.getCourt().getId());
+                if (court == null) {
+                    court = courts.reserve(start, end, null);
+                }
+                if (court != null) {
+                    booked.put(m.getId(), court);
+                    continue;
+                }
+                reason = "No free court at the new time";
+            } catch (IllegalArgumentException ex) {
+                reason = ex.getMessage();
+            }
+            failed.put(m.getId(), reason);
+            moving.remove(m.getId());
+            allBooked = false;
+        }
+        if (allBooked) {
+            booked.forEach((id, court) -> moving.get(id).setCourt(court));
+        }
+        return allBooked;
+    }
+}
@@ -0,0 +1,227 @@
+package org.example.tennistournament.service;
+
+import org.example.tennistournament.dto.PlayerStandingDto;
+import org.example.tennistournament.event.MatchScoreUpdatedEvent;
+import org.example.tennistournament.model.MatchScore;
+import org.example.tennistournament.model.PlayerStanding;
+import org.example.tennistournament.model.TennisMatch;
+import org.example.tennistournament.repository.PlayerStandingRepository;
+import org.example.tennistournament.repository.TournamentRepository;
+import org.example.tennistournament.repository.UserRepository;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tournament standings and player statistics from the {@code player_standing} table.
+ * <p>
+ * A score change adds the difference between the previous and the new score to both players'
+ * rows just before its transaction commits, as relative updates, so concurrent changes cannot
+ * lose each other's counts. Reads are served from an in-memory copy of the rows, loaded once per
+ * tournament or player and refreshed from the changed rows after each commit; a refreshed row
+ * replaces the cached one only if its version is newer. {@code tennis_match} is never scanned.
+ * <p>
+ * The cache follows the writes of this instance only.
+ */
+@Service
+public class StandingsService {
+
+    private static final String ADD =
+            "UPDATE player_standing SET version = version + 1, "
+                    + "matches_played = matches_played + ?, matches_won = matches_won + ?, "
+                    + "sets_won = sets_won + ?, sets_lost = sets_lost + ?, "
+                    + "games_won = games_won + ?, games_lost = games_lost + ?, "
+                    + "tiebreaks_won = tiebreaks_won + ?, tiebreaks_lost = tiebreaks_lost + ? "
+                    + "WHERE tournament_id = ? AND player_id = ?";
+    private static final String INSERT =
+            "INSERT INTO player_standing (version, matches_played, matches_won, sets_won, sets_lost, "
+                    + "games_won, games_lost, tiebreaks_won, tiebreaks_lost, tournament_id, player_id) "
+                    + "VALUES (0, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final Comparator<PlayerStanding> RANKING =
+            Comparator.comparingInt(PlayerStanding::getMatchesWon).reversed()
+                    .thenComparing(Comparator.comparingInt((PlayerStanding s) -> s.getSetsWon() - s.getSetsLost()).reversed())
+                    .thenComparing(Comparator.comparingInt((PlayerStanding s) -> s.getGamesWon() - s.getGamesLost()).reversed())
+                    .thenComparing(PlayerStanding::getPlayerId);
+
+    private final PlayerStandingRepository playerStandingRepository;
+    private final TournamentRepository tournamentRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    // tournament id -> player id -> row, and the same rows by player id -> tournament id
+    private final Map<Long, Map<Long, PlayerStanding>> byTournament = new ConcurrentHashMap<>();
+    private final Map<Long, Map<Long, PlayerStanding>> byPlayer = new ConcurrentHashMap<>();
+    private final Set<Long> loadedTournaments = ConcurrentHashMap.newKeySet();
+    private final Set<Long> loadedPlayers = ConcurrentHashMap.newKeySet();
+
+    public StandingsService(PlayerStandingRepository playerStandingRepository,
+                            TournamentRepository tournamentRepository,
+                            UserRepository userRepository,
+                            JdbcTemplate jdbcTemplate) {
+        this.playerStandingRepository = playerStandingRepository;
+        this.tournamentRepository = tournamentRepository;
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // --- writes ---
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onScoreUpdated(MatchScoreUpdatedEvent event) {
+        add(event.tournamentId(), event.player1Id(), 1, event.previousScore(), event.score());
+        add(event.tournamentId(), event.player2Id(), 2, event.previousScore(), event.score());
+    }
+
+    // own read transaction: the committed one's persistence context would hand back stale rows
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void afterScoreUpdated(MatchScoreUpdatedEvent event) {
+        refresh(event.tournamentId(), List.of(event.player1Id(), event.player2Id()));
+    }
+
+    /**
+     * Takes the results of matches that are being deleted with a player out of their opponents'
+     * standings, and drops the player's own rows.
+     */
+    public void removePlayer(Long playerId, Collection<TennisMatch> deletedMatches) {
+        Map<Long, TennisMatch> unique = new HashMap<>();
+        deletedMatches.forEach(m -> unique.put(m.getId(), m));
+        Map<Long, Set<Long>> touched = new HashMap<>();
+        for (TennisMatch m : unique.values()) {
+            if (!m.hasScore()) {
+                continue;
+            }
+            Long tournamentId = m.getTournament().getId();
+            Long[] players = { m.getPlayer1().getId(), m.getPlayer2().getId() };
+            for (int p = 0; p < 2; p++) {
+                if (!players[p].equals(playerId)) {
+                    add(tournamentId, players[p], p + 1, m.getMatchScore(), null);
+                    touched.computeIfAbsent(tournamentId, id -> new HashSet<>()).add(players[p]);
+                }
+            }
+        }
+        playerStandingRepository.deleteByPlayerId(playerId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                forgetPlayer(playerId);
+                touched.forEach(StandingsService.this::refresh);
+            }
+        });
+    }
+
+    private void add(Long tournamentId, Long playerId, int player, MatchScore previous, MatchScore score) {
+        long[] before = PlayerStanding.totalsOf(previous, player);
+        long[] after = PlayerStanding.totalsOf(score, player);
+        Object[] args = new Object[PlayerStanding.COUNTERS + 2];
+        boolean changed = false;
+        for (int i = 0; i < PlayerStanding.COUNTERS; i++) {
+            args[i] = after[i] - before[i];
+            changed |= after[i] != before[i];
+        }
+        if (!changed) {
+            return;
+        }
+        args[PlayerStanding.COUNTERS] = tournamentId;
+        args[PlayerStanding.COUNTERS + 1] = playerId;
+        if (jdbcTemplate.update(ADD, args) == 0) {
+            try {
+                jdbcTemplate.update(INSERT, args);
+            } catch (DuplicateKeyException ex) {
+                // a concurrent first result of the player created the row
+                jdbcTemplate.update(ADD, args);
+            }
+        }
+    }
+
+    // --- cache ---
+
+    private void refresh(Long tournamentId, Collection<Long> playerIds) {
+        Set<Long> missing = new HashSet<>(playerIds);
+        for (PlayerStanding row : playerStandingRepository.findByTournamentIdAndPlayerIdIn(tournamentId, playerIds)) {
+            cache(row);
+            missing.remove(row.getPlayerId());
+        }
+        // rows only disappear with their player
+        for (Long playerId : missing) {
+            byTournament.computeIfPresent(tournamentId, (id, players) -> {
+                players.remove(playerId);
+                return players;
+            });
+            byPlayer.computeIfPresent(playerId, (id, tournaments) -> {
+                tournaments.remove(tournamentId);
+                return tournaments;
+            });
+        }
+    }
+
+    private void cache(PlayerStanding row) {
+        byTournament.computeIfAbsent(row.getTournamentId(), id -> new ConcurrentHashMap<>())
+                .merge(row.getPlayerId(), row, StandingsService::newer);
+        byPlayer.computeIfAbsent(row.getPlayerId(), id -> new ConcurrentHashMap<>())
+                .merge(row.getTournamentId(), row, StandingsService::newer);
+    }
+
+    private static PlayerStanding newer(PlayerStanding cached, PlayerStanding loaded) {
+        return loaded.getVersion() >= cached.getVersion() ? loaded : cached;
+    }
+
+    private void forgetPlayer(Long playerId) {
+        loadedPlayers.remove(playerId);
+        byPlayer.remove(playerId);
+        byTournament.values().forEach(players -> players.remove(playerId));
+    }
+
+    // --- reads ---
+
+    public List<PlayerStandingDto> getTournamentStandings(Long tournamentId) {
+        if (!loadedTournaments.contains(tournamentId)) {
+            List<PlayerStanding> rows = playerStandingRepository.findByTournamentId(tournamentId);
+            if (rows.isEmpty() && !tournamentRepository.existsById(tournamentId)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Tournament not found!");
+            }
+            rows.forEach(this::cache);
+            loadedTournaments.add(tournamentId);
+        }
+        List<PlayerStanding> rows = new ArrayList<>(byTournament.getOrDefault(tournamentId, Map.of()).values());
+        rows.sort(RANKING);
+        List<PlayerStandingDto> standings = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            standings.add(new PlayerStandingDto(rows.get(i), i + 1));
+        }
+        return standings;
+    }
+
+    public List<PlayerStandingDto> getPlayerStandings(Long playerId) {
+        if (!loadedPlayers.contains(playerId)) {
+            List<PlayerStanding> rows = playerStandingRepository.findByPlayerId(playerId);
+            if (rows.isEmpty() && !userRepository.existsById(playerId)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Player not found!");
+            }
+            rows.forEach(this::cache);
+            loadedPlayers.add(playerId);
+        }
+        List<PlayerStanding> rows = new ArrayList<>(byPlayer.getOrDefault(playerId, Map.of()).values());
+        rows.sort(Comparator.comparing(PlayerStanding::getTournamentId));
+        return rows.stream().map(s -> new PlayerStandingDto(s, null)).toList();
+    }
+}
@@ -2,6 +2,13 @@ package org.example.tennistournament.service;
 
 import jakarta.persistence.OptimisticLockException;
 import org.example.tennistournament.builder.TennisMatchBuilder;
+import org.example.tennistournament.dto.MatchBatchItemDto;
+import org.example.tennistournament.dto.MatchBatchRequestDto;
+import org.example.tennistournament.dto.MatchBatchResultDto;
+import org.example.tennistournament.dto.MatchDto;
+import org.example.tennistournament.event.MatchScoreUpdatedEvent;
+import org.example.tennistournament.model.Court;
+import org.example.tennistournament.model.MatchScore;
 import org.example.tennistournament.model.Role;
 import org.example.tennistournament.model.TennisMatch;
 import org.example.tennistournament.model.Tournament;
@@ -10,16 +17,31 @@ import org.example.tennistournament.repository.TennisMatchRepository;
 import org.example.tennistournament.repository.TournamentRepository;
 import org.example.tennistournament.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -34,6 +56,27 @@ public class TennisMatchService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private MatchIntervalIndex matchIntervalIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RefereeAssignmentService refereeAssignmentService;
+
+    @Autowired
+    private ParticipantLocks participantLocks;
+
+    @Autowired
+    private CourtService courtService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${application.scoring.best-of:3}")
+    private int bestOf;
+
     @PreAuthorize("hasRole('ADMIN')")
     public TennisMatch createMatch(Long tournamentId,
                                    Long player1Id,
@@ -42,6 +85,22 @@ public class TennisMatchService {
                                    LocalDateTime startTime,
                                    LocalDateTime endTime,
                                    Long currentUserId) {
+        return createMatch(tournamentId, player1Id, player2Id, refereeId, null, startTime, endTime, currentUserId);
+    }
+
+    /**
+     * Creates a match; if the tournament has courts, the given court (or else the first free one)
+     * is booked for the slot as well.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    public TennisMatch createMatch(Long tournamentId,
+                                   Long player1Id,
+                                   Long player2Id,
+                                   Long refereeId,
+                                   Long courtId,
+                                   LocalDateTime startTime,
+                                   LocalDateTime endTime,
+                                   Long currentUserId) {
         // --- fetch and perms ---
         User currentUser = userRepository.findById(currentUserId)
                 .orElseThrow(() -> new ResponseStatusException(
@@ -60,15 +119,215 @@ public class TennisMatchService {
         User p2 = userRepository.findById(player2Id)
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.NOT_FOUND, "Player2 not found!"));
+        if (refereeId == null) {
+            // no referee picked: take the least loaded one that is free for the slot
+            refereeId = refereeAssignmentService.newPool(tournamentId, null, Set.of())
+                    .suggest(startTime, endTime);
+            if (refereeId == null) {
+                throw new IllegalArgumentException("No referee is free for this time slot!");
+            }
+        }
         User ref = userRepository.findById(refereeId)
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.NOT_FOUND, "Referee not found!"));
 
         // --- validation (400) ---
+        validateMatch(tournament,
+                new HashSet<>(tournamentRepository.findRegisteredPlayerIds(tournamentId, List.of(p1.getId(), p2.getId()))),
+                p1, p2, ref, startTime, endTime);
+
+        // held until the transaction completes, so a concurrent writer sees this match
+        List<Long> participantIds = Arrays.asList(p1.getId(), p2.getId(), ref.getId());
+        participantLocks.lockForTransaction(participantIds);
+        matchIntervalIndex.warmTournament(tournamentId);
+        checkOverlaps(participantIds, startTime, endTime);
+        Court court = courtService.reserve(tournamentId, courtId, startTime, endTime);
+
+        // --- build & save ---
+        TennisMatch match = TennisMatchBuilder.builder()
+                .tournament(tournament)
+                .player1(p1)
+                .player2(p2)
+                .referee(ref)
+                .startTime(startTime)
+                .endTime(endTime)
+                .score("")
+                .build();
+        match.setCourt(court);
+        try {
+            TennisMatch saved = tennisMatchRepository.save(match);
+            matchIntervalIndex.addAfterCommit(saved);
+            return saved;
+        } catch (OptimisticLockException ex) {
+            throw new IllegalStateException("Match was concurrently updated, please refresh!");
+        }
+    }
+
+    /**
+     * Creates a whole round of matches in one transaction: the tournament, roster and all
+     * referenced users are loaded once, every item is validated and checked for conflicts
+     * against committed matches and the rest of the batch, and the rows go out as one JDBC batch.
+     * Invalid items are reported per item; with {@code atomic} set they reject the whole batch.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    public MatchBatchResultDto createMatches(MatchBatchRequestDto request, Long currentUserId) {
+        User currentUser = userRepository.findById(currentUserId)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "Current user not found!"));
+        if (currentUser.getRole() != Role.ADMIN) {
+            throw new ResponseStatusException(
+                    HttpStatus.FORBIDDEN, "Only ADMIN can create matches!");
+        }
+        if (request.tournamentId == null) {
+            throw new IllegalArgumentException("Tournament ID is required!");
+        }
+        Tournament tournament = tournamentRepository.findById(request.tournamentId)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "Tournament not found!"));
+
+        List<MatchBatchItemDto> items = request.matches != null ? request.matches : List.of();
+        MatchBatchResultDto result = new MatchBatchResultDto();
+        result.received = items.size();
+
+        // --- load everything once ---
+        Set<Long> userIds = new HashSet<>();
+        for (MatchBatchItemDto item : items) {
+            if (item.player1Id != null) userIds.add(item.player1Id);
+            if (item.player2Id != null) userIds.add(item.player2Id);
+            if (item.refereeId != null) userIds.add(item.refereeId);
+        }
+        Map<Long, User> users = new HashMap<>();
+        userRepository.findAllById(userIds).forEach(u -> users.put(u.getId(), u));
+        Set<Long> rosterIds = userIds.isEmpty() ? Set.of()
+                : new HashSet<>(tournamentRepository.findRegisteredPlayerIds(tournament.getId(), userIds));
+        participantLocks.lockForTransaction(users.keySet());
+        matchIntervalIndex.warmTournament(tournament.getId());
+        CourtAllocator courts = courtService.openAllocator(tournament.getId());
+
+        // --- single validation pass; accepted items also block later items of the batch ---
+        List<TennisMatch> accepted = new ArrayList<>();
+        Map<Long, List<TennisMatch>> acceptedByParticipant = new HashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            MatchBatchItemDto item = items.get(i);
+            try {
+                TennisMatch match = buildBatchMatch(item, tournament, rosterIds, users);
+                List<Long> participantIds = Arrays.asList(
+                        match.getPlayer1().getId(), match.getPlayer2().getId(), match.getReferee().getId());
+                checkOverlaps(participantIds, item.startTime, item.endTime);
+                for (Long participantId : participantIds) {
+                    for (TennisMatch other : acceptedByParticipant.getOrDefault(participantId, List.of())) {
+                        if (other.getStartTime().isBefore(item.endTime) && other.getEndTime().isAfter(item.startTime)) {
+                            throw new IllegalArgumentException(
+                                    "Scheduling conflict: overlaps another match of this batch!");
+                        }
+                    }
+                }
+                match.setCourt(courtService.reserve(courts, item.courtId, item.startTime, item.endTime));
+                accepted.add(match);
+                participantIds.forEach(id ->
+                        acceptedByParticipant.computeIfAbsent(id, k -> new ArrayList<>()).add(match));
+            } catch (IllegalArgumentException | ResponseStatusException ex) {
+                String message = ex instanceof ResponseStatusException rse ? rse.getReason() : ex.getMessage();
+                result.errors.add(new MatchBatchResultDto.ItemError(i + 1, message));
+            }
+        }
+        if (accepted.isEmpty() || (request.atomic && !result.errors.isEmpty())) {
+            return result;
+        }
+
+        courts.flush();
+        insertBatch(accepted);
+        for (TennisMatch match : accepted) {
+            matchIntervalIndex.addAfterCommit(match);
+            result.matches.add(new MatchDto(match));
+        }
+        result.created = accepted.size();
+        return result;
+    }
+
+    private TennisMatch buildBatchMatch(MatchBatchItemDto item,
+                                        Tournament tournament,
+                                        Set<Long> rosterIds,
+                                        Map<Long, User> users) {
+        if (item.player1Id == null || item.player2Id == null || item.refereeId == null
+                || item.startTime == null || item.endTime == null) {
+            throw new IllegalArgumentException("Players, referee, start and end time are required!");
+        }
+        User p1 = users.get(item.player1Id);
+        if (p1 == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Player1 not found!");
+        }
+        User p2 = users.get(item.player2Id);
+        if (p2 == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Player2 not found!");
+        }
+        User ref = users.get(item.refereeId);
+        if (ref == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Referee not found!");
+        }
+        validateMatch(tournament, rosterIds, p1, p2, ref, item.startTime, item.endTime);
+        return TennisMatchBuilder.builder()
+                .tournament(tournament)
+                .player1(p1)
+                .player2(p2)
+                .referee(ref)
+                .startTime(item.startTime)
+                .endTime(item.endTime)
+                .score("")
+                .build();
+    }
+
+    // JDBC batch insert; the generated ids are written back onto the matches
+    private void insertBatch(List<TennisMatch> matches) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(
+                        "INSERT INTO tennis_match (version, tournament_id, player1_id, player2_id, referee_id, "
+                                + "court_id, score, start_time, end_time) VALUES (0, ?, ?, ?, ?, ?, ?, ?, ?)",
+                        new String[] { "id" }),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        TennisMatch m = matches.get(i);
+                        ps.setLong(1, m.getTournament().getId());
+                        ps.setLong(2, m.getPlayer1().getId());
+                        ps.setLong(3, m.getPlayer2().getId());
+                        ps.setLong(4, m.getReferee().getId());
+                        if (m.getCourt() != null) {
+                            ps.setLong(5, m.getCourt().getId());
+                        } else {
+                            ps.setNull(5, Types.BIGINT);
+                        }
+                        ps.setString(6, m.getScore());
+                        ps.setTimestamp(7, Timestamp.valueOf(m.getStartTime()));
+                        ps.setTimestamp(8, Timestamp.valueOf(m.getEndTime()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return matches.size();
+                    }
+                },
+                keys);
+        List<Map<String, Object>> generated = keys.getKeyList();
+        for (int i = 0; i < matches.size(); i++) {
+            Object id = generated.get(i).values().iterator().next();
+            matches.get(i).setId(((Number) id).longValue());
+            matches.get(i).setVersion(0L);
+        }
+    }
+
+    private void validateMatch(Tournament tournament,
+                               Set<Long> rosterIds,
+                               User p1,
+                               User p2,
+                               User ref,
+                               LocalDateTime startTime,
+                               LocalDateTime endTime) {
         if (p1.getId().equals(p2.getId())) {
             throw new IllegalArgumentException("Player1 and Player2 cannot be the same user!");
         }
-        if (!tournament.getPlayers().contains(p1) || !tournament.getPlayers().contains(p2)) {
+        if (!rosterIds.contains(p1.getId()) || !rosterIds.contains(p2.getId())) {
             throw new IllegalArgumentException("Both players must be registered in the tournament!");
         }
         if (p1.getRole() != Role.PLAYER || p2.getRole() != Role.PLAYER) {
@@ -89,33 +348,14 @@ public class TennisMatchService {
             throw new IllegalArgumentException(
                     "Match must be scheduled within the tournament's start/end dates!");
         }
-
-        checkOverlaps(Arrays.asList(p1.getId(), p2.getId(), ref.getId()), startTime, endTime);
-
-        // --- build & save ---
-        TennisMatch match = TennisMatchBuilder.builder()
-                .tournament(tournament)
-                .player1(p1)
-                .player2(p2)
-                .referee(ref)
-                .startTime(startTime)
-                .endTime(endTime)
-                .score("")
-                .build();
-        try {
-            return tennisMatchRepository.save(match);
-        } catch (OptimisticLockException ex) {
-            throw new IllegalStateException("Match was concurrently updated, please refresh!");
-        }
     }
 
     private void checkOverlaps(List<Long> participantIds,
                                LocalDateTime proposedStart,
                                LocalDateTime proposedEnd) {
-        List<TennisMatch> conflicts = tennisMatchRepository.findOverlappingMatches(
-                participantIds, proposedStart, proposedEnd
-        );
-        if (!conflicts.isEmpty()) {
+        // under the participant locks: a conflict in the index is final, its absence is
+        // confirmed with a locking read of the matches table
+        if (!matchIntervalIndex.findConflictsForWrite(participantIds, proposedStart, proposedEnd, List.of()).isEmpty()) {
             throw new IllegalArgumentException(
                     "Scheduling conflict: participant(s) already have a match overlapping this time!");
         }
@@ -163,17 +403,39 @@ public class TennisMatchService {
                     "Cannot update score after the tournament's end date!");
         }
 
-        // simple regex check
-        if (!newScore.matches("^[0-9\\- ,]+$")) {
+        // format and tennis rules; the packed form is what statistics read
+        MatchScore score = MatchScore.parse(newScore, bestOf);
+        if (score.isEmpty()) {
             throw new IllegalArgumentException("Score format invalid. Example: 6-4,3-6,7-5");
         }
 
-        match.setScore(newScore);
+        return saveScore(match, score, currentUserId);
+    }
+
+    /**
+     * Stores the completed sets reached through point-by-point scoring. The caller has
+     * authorized the referee; an empty score (undo back into the first set) clears it.
+     */
+    public TennisMatch recordPointScore(Long matchId, MatchScore score, Long currentUserId) {
+        TennisMatch match = tennisMatchRepository.findById(matchId)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "Match not found!"));
+        return saveScore(match, score.isEmpty() ? null : score, currentUserId);
+    }
+
+    private TennisMatch saveScore(TennisMatch match, MatchScore score, Long updatedById) {
+        MatchScore previous = match.getMatchScore();
+        match.setMatchScore(score);
+        TennisMatch saved;
         try {
-            return tennisMatchRepository.save(match);
+            saved = tennisMatchRepository.save(match);
         } catch (OptimisticLockException ex) {
             throw new IllegalStateException("Match was concurrently updated, please refresh!");
         }
+        // listeners run in their transaction phase; live streams only see committed scores
+        eventPublisher.publishEvent(new MatchScoreUpdatedEvent(saved.getId(), saved.getTournament().getId(),
+                saved.getPlayer1().getId(), saved.getPlayer2().getId(), updatedById, previous, score));
+        return saved;
     }
 
     public boolean isParticipantOrAdmin(Long tournamentId, Long userId) {
@@ -183,10 +445,7 @@ public class TennisMatchService {
             return true;
         }
         // otherwise must be one of the registered players
-        return tournamentRepository.findById(tournamentId)
-                .map(t -> t.getPlayers().stream()
-                        .anyMatch(p -> p.getId().equals(userId)))
-                .orElse(false);
+        return tournamentRepository.isPlayerRegistered(tournamentId, userId);
     }
 
     public boolean isRefereeOfMatch(Long matchId, Long userId) {
@@ -97,7 +97,7 @@ public class TournamentService {
         }
 
         // note: approved players list, not pending requests
-        if (tournament.getPlayers().size() >= tournament.getMaxPlayers()) {
+        if (tournamentRepository.countPlayers(tournamentId) >= tournament.getMaxPlayers()) {
             throw new IllegalArgumentException("Tournament is at max capacity!");
         }
 
@@ -127,7 +127,7 @@ public class TournamentService {
                         HttpStatus.NOT_FOUND, "Tournament not found!"));
 
         if (LocalDate.now().isAfter(t.getRegistrationDeadline())
-                && t.getPlayers().size() < t.getMinPlayers()) {
+                && tournamentRepository.countPlayers(tournamentId) < t.getMinPlayers()) {
             t.setCancelled(true);
             tournamentRepository.save(t);
         }
@@ -142,6 +142,16 @@ public class TournamentService {
         return tournamentRepository.save(tournament);
     }
 
+    /**
+     * Adds the player to the roster with a single join-table insert; no-op if already registered.
+     */
+    @Transactional
+    public void addPlayer(Long tournamentId, Long playerId) {
+        if (!tournamentRepository.isPlayerRegistered(tournamentId, playerId)) {
+            tournamentRepository.addPlayer(tournamentId, playerId);
+        }
+    }
+
     public boolean isRefereeOfTournament(Long tournamentId, Long userId) {
         return tournamentRepository.findById(tournamentId)
                 .map(t -> t.getMatches().stream()
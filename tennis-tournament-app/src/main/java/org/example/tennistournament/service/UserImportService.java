@@ -0,0 +1,271 @@
+package org.example.tennistournament.service;
+
+import org.example.tennistournament.dto.UserImportResultDto;
+import org.example.tennistournament.dto.UserImportRowDto;
+import jakarta.validation.Validator;
+import org.example.tennistournament.model.Role;
+import org.example.tennistournament.model.User;
+import org.example.tennistournament.repository.UserRepository;
+import org.example.tennistournament.security.PasswordHashingExecutor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Bulk onboarding of users (e.g. a whole club at once).
+ * Uniqueness is checked with set-based queries, passwords are hashed in parallel on the
+ * hashing pool and rows are written with JDBC batch inserts. Hashing happens before any
+ * transaction is opened, so no connection or lock is held while BCrypt runs; only the inserts
+ * share one short transaction. No tokens are minted: imported users log in themselves.
+ * <p>
+ * The inserts bypass the entity, so each row is checked against the constraints declared on
+ * {@link User}. Usernames and emails are compared ignoring case, like the unique indexes under
+ * MySQL's default collation.
+ */
+@Service
+public class UserImportService {
+
+    private static final int QUERY_CHUNK = 1000;
+    private static final int INSERT_BATCH = 500;
+
+    private final UserRepository userRepository;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+
+    public UserImportService(UserRepository userRepository,
+                             PasswordHashingExecutor passwordHashingExecutor,
+                             JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             Validator validator) {
+        this.userRepository = userRepository;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+    }
+
+    /**
+     * Parses {@code username,email,password[,role]} lines; a header line is skipped.
+     * Fields may be quoted as in RFC 4180 (commas and doubled quotes inside quotes), but a
+     * quoted field cannot span lines. Malformed quoting rejects the whole upload.
+     */
+    public List<UserImportRowDto> parseCsv(Reader reader) {
+        List<UserImportRowDto> rows = new ArrayList<>();
+        try (BufferedReader in = new BufferedReader(reader)) {
+            String line;
+            int lineNumber = 0;
+            boolean first = true;
+            while ((line = in.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> cols = splitCsvLine(line, lineNumber);
+                if (first && cols.get(0).trim().equalsIgnoreCase("username")) {
+                    first = false;
+                    continue;
+                }
+                first = false;
+                UserImportRowDto row = new UserImportRowDto();
+                row.line     = lineNumber;
+                row.username = cols.get(0).trim();
+                row.email    = cols.size() > 1 ? cols.get(1).trim() : null;
+                row.password = cols.size() > 2 ? cols.get(2) : null;
+                if (cols.size() > 3 && !cols.get(3).isBlank()) {
+                    row.role = parseRole(cols.get(3).trim()); // null is reported as a row error
+                }
+                rows.add(row);
+            }
+        } catch (IOException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Could not read CSV upload", ex);
+        }
+        return rows;
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public UserImportResultDto importUsers(List<UserImportRowDto> rows) {
+        UserImportResultDto result = new UserImportResultDto();
+        result.received = rows.size();
+
+        // --- per-row validation and duplicates inside the upload ---
+        Set<String> seenUsernames = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            UserImportRowDto row = rows.get(i);
+            String error = validate(row);
+            if (error == null && !seenUsernames.add(normalize(row.username))) {
+                error = "Duplicate username in upload!";
+            }
+            if (error == null && !seenEmails.add(normalize(row.email))) {
+                error = "Duplicate email in upload!";
+            }
+            if (error != null) {
+                result.errors.add(new UserImportResultDto.RowError(rowNumber(row, i), row.username, error));
+            } else {
+                candidates.add(i);
+            }
+        }
+
+        // --- set-based uniqueness against existing users ---
+        Set<String> takenUsernames = new HashSet<>();
+        Set<String> takenEmails = new HashSet<>();
+        List<String> usernames = candidates.stream().map(i -> rows.get(i).username).toList();
+        List<String> emails = candidates.stream().map(i -> rows.get(i).email).toList();
+        for (List<String> chunk : chunks(usernames)) {
+            userRepository.findExistingUsernames(chunk).forEach(u -> takenUsernames.add(normalize(u)));
+        }
+        for (List<String> chunk : chunks(emails)) {
+            userRepository.findExistingEmails(chunk).forEach(e -> takenEmails.add(normalize(e)));
+        }
+
+        List<UserImportRowDto> accepted = new ArrayList<>();
+        for (int i : candidates) {
+            UserImportRowDto row = rows.get(i);
+            if (takenUsernames.contains(normalize(row.username))) {
+                result.errors.add(new UserImportResultDto.RowError(rowNumber(row, i), row.username, "Username already exists!"));
+            } else if (takenEmails.contains(normalize(row.email))) {
+                result.errors.add(new UserImportResultDto.RowError(rowNumber(row, i), row.username, "Email already exists!"));
+            } else {
+                accepted.add(row);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return result;
+        }
+
+        // --- hash in parallel outside any transaction, then batch insert in a short one ---
+        List<String> hashes = passwordHashingExecutor.encodeAll(
+                accepted.stream().map(r -> r.password).toList());
+        List<Object[]> params = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            UserImportRowDto row = accepted.get(i);
+            params.add(new Object[] { row.username, row.email, hashes.get(i), row.role.name() });
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                    "INSERT INTO users (username, email, password, role, version, token_generation) "
+                            + "VALUES (?, ?, ?, ?, 0, 0)",
+                    params, INSERT_BATCH,
+                    (ps, p) -> {
+                        ps.setString(1, (String) p[0]);
+                        ps.setString(2, (String) p[1]);
+                        ps.setString(3, (String) p[2]);
+                        ps.setString(4, (String) p[3]);
+                    }));
+        } catch (DuplicateKeyException ex) {
+            // someone registered one of these names while we were hashing
+            throw new ResponseStatusException(
+                    HttpStatus.CONFLICT, "Some users were created concurrently, please retry the import", ex);
+        }
+        result.created = accepted.size();
+        return result;
+    }
+
+    // CSV rows are reported by their line in the file (header included), JSON rows by position
+    private static int rowNumber(UserImportRowDto row, int index) {
+        return row.line > 0 ? row.line : index + 1;
+    }
+
+    private static List<String> splitCsvLine(String line, int lineNumber) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int i = 0;
+        while (true) {
+            if (i < line.length() && line.charAt(i) == '"') {
+                i++;
+                while (true) {
+                    if (i >= line.length()) {
+                        throw malformed(lineNumber, "unterminated quoted field (fields cannot span lines)");
+                    }
+                    char c = line.charAt(i++);
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                if (i < line.length() && line.charAt(i) != ',') {
+                    throw malformed(lineNumber, "text after a quoted field");
+                }
+            } else {
+                while (i < line.length() && line.charAt(i) != ',') {
+                    char c = line.charAt(i++);
+                    if (c == '"') {
+                        throw malformed(lineNumber, "quote inside an unquoted field");
+                    }
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            field.setLength(0);
+            if (i >= line.length()) {
+                return fields;
+            }
+            i++; // the comma
+        }
+    }
+
+    private static ResponseStatusException malformed(int lineNumber, String problem) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Line " + lineNumber + ": " + problem);
+    }
+
+    private static Role parseRole(String value) {
+        try {
+            return Role.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private String validate(UserImportRowDto row) {
+        if (row.role == null) {
+            return "Unknown role!";
+        }
+        if (!validator.validateValue(User.class, "username", row.username).isEmpty()) {
+            return "Username cannot be empty!";
+        }
+        if (!validator.validateValue(User.class, "email", row.email).isEmpty()) {
+            return "Email is missing or invalid!";
+        }
+        if (row.password == null || row.password.isBlank()) {
+            return "Password cannot be empty!";
+        }
+        if (row.password.length() < 6) {
+            return "Password must be at least 6 characters long!";
+        }
+        return null;
+    }
+
+    // case-insensitive, like the unique indexes under MySQL's default collation
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private static List<List<String>> chunks(List<String> values) {
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < values.size(); from += QUERY_CHUNK) {
+            chunks.add(values.subList(from, Math.min(from + QUERY_CHUNK, values.size())));
+        }
+        return chunks;
+    }
+}
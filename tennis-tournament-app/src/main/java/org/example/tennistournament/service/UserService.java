@@ -5,19 +5,24 @@ import org.example.tennistournament.model.Role;
 import org.example.tennistournament.model.TennisMatch;
 import org.example.tennistournament.model.Tournament;
 import org.example.tennistournament.model.User;
+import org.example.tennistournament.repository.MatchPointEventRepository;
 import org.example.tennistournament.repository.RegistrationRequestRepository;
 import org.example.tennistournament.repository.TennisMatchRepository;
 import org.example.tennistournament.repository.TournamentRepository;
 import org.example.tennistournament.repository.UserRepository;
+import org.example.tennistournament.security.PasswordHashingExecutor;
+import org.example.tennistournament.security.UserAuthStateCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -34,11 +39,32 @@ public class UserService {
     private TennisMatchRepository tennisMatchRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingExecutor passwordHashingExecutor;
 
     @Autowired
     private RegistrationRequestRepository registrationRequestRepository;
 
+    @Autowired
+    private UserAuthStateCache userAuthStateCache;
+
+    @Autowired
+    private MatchIntervalIndex matchIntervalIndex;
+
+    @Autowired
+    private ParticipantLocks participantLocks;
+
+    @Autowired
+    private CourtService courtService;
+
+    @Autowired
+    private MatchPointEventRepository matchPointEventRepository;
+
+    @Autowired
+    private PointScoringService pointScoringService;
+
+    @Autowired
+    private StandingsService standingsService;
+
     @PreAuthorize("#userId == principal.id or hasRole('ADMIN')")
     public User updateUser(Long userId, String newUsername, String newEmail, String newPassword) {
         try {
@@ -66,10 +92,13 @@ public class UserService {
                 if (newPassword.length() < 6) {
                     throw new IllegalArgumentException("New password must be at least 6 characters!");
                 }
-                user.setPassword(passwordEncoder.encode(newPassword));
+                user.setPassword(passwordHashingExecutor.encode(newPassword));
             }
 
-            return userRepository.save(user);
+            User saved = userRepository.save(user);
+            // tokens carry the user version, so bumping it invalidates them once this commits
+            userAuthStateCache.updateAfterCommit(saved);
+            return saved;
         } catch (OptimisticLockException ex) {
             throw new ResponseStatusException(
                     HttpStatus.CONFLICT,
@@ -96,23 +125,40 @@ public class UserService {
                     .orElseThrow(() -> new ResponseStatusException(
                             HttpStatus.NOT_FOUND, "User not found!"));
 
-            // delete all related matches
+            // delete all related matches (a schedule write, so the user is locked like one)
+            participantLocks.lockForTransaction(List.of(id));
             List<TennisMatch> asP1 = tennisMatchRepository.findByPlayer1Id(id);
             List<TennisMatch> asP2 = tennisMatchRepository.findByPlayer2Id(id);
             List<TennisMatch> asRef = tennisMatchRepository.findByRefereeId(id);
+            courtService.release(asP1);
+            courtService.release(asP2);
+            courtService.release(asRef);
+            Set<Long> matchIds = new HashSet<>();
+            asP1.forEach(m -> matchIds.add(m.getId()));
+            asP2.forEach(m -> matchIds.add(m.getId()));
+            asRef.forEach(m -> matchIds.add(m.getId()));
+            if (!matchIds.isEmpty()) {
+                matchPointEventRepository.deleteByMatchIdIn(matchIds);
+                pointScoringService.forgetAfterCommit(matchIds);
+            }
+            List<TennisMatch> deleted = new ArrayList<>(asP1);
+            deleted.addAll(asP2);
+            deleted.addAll(asRef);
+            standingsService.removePlayer(id, deleted);
             asP1.forEach(tennisMatchRepository::delete);
             asP2.forEach(tennisMatchRepository::delete);
             asRef.forEach(tennisMatchRepository::delete);
+            asP1.forEach(matchIntervalIndex::removeAfterCommit);
+            asP2.forEach(matchIntervalIndex::removeAfterCommit);
+            asRef.forEach(matchIntervalIndex::removeAfterCommit);
 
             registrationRequestRepository.deleteAllByPlayerId(id);
             // remove from any tournaments
-            List<Tournament> joined = tournamentRepository.findAllByPlayer(id);
-            for (Tournament t : joined) {
-                t.getPlayers().remove(user);
-                tournamentRepository.save(t);
-            }
+            tournamentRepository.removePlayerFromAll(id);
 
             userRepository.delete(user);
+            userAuthStateCache.markDeletedAfterCommit(id);
+            matchIntervalIndex.forgetParticipantAfterCommit(id);
         } catch (OptimisticLockException ex) {
             throw new ResponseStatusException(
                     HttpStatus.CONFLICT,
@@ -147,8 +193,9 @@ public class UserService {
                     .orElseThrow(() -> new ResponseStatusException(
                             HttpStatus.NOT_FOUND,
                             "Tournament not found: " + tournamentId));
+            Set<Long> rosterIds = new HashSet<>(tournamentRepository.findPlayerIds(t.getId()));
             players = players.stream()
-                    .filter(t.getPlayers()::contains)
+                    .filter(u -> rosterIds.contains(u.getId()))
                     .collect(Collectors.toList());
         }
 
@@ -0,0 +1,90 @@
+package org.example.tennistournament.util;
+
+import org.example.tennistournament.journal.ScoreJournalReader;
+import org.example.tennistournament.journal.ScoreJournalRecord;
+import org.example.tennistournament.model.MatchScore;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Offline reader of the score journal; needs only the journal directory.
+ * <pre>
+ *   replay &lt;dir&gt; [from-date] [to-date]   last score of every match, as the journal rebuilds it
+ *   audit  &lt;dir&gt; &lt;match-id&gt;             every change of one match, flagging changes whose
+ *                                        previous score is not the score recorded before
+ * </pre>
+ * From the packaged application:
+ * {@code java -cp app.jar -Dloader.main=org.example.tennistournament.util.ScoreJournalTool
+ * org.springframework.boot.loader.launch.PropertiesLauncher audit data/journal 42}
+ */
+public class ScoreJournalTool {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || !(args[0].equals("replay") || args[0].equals("audit"))) {
+            System.err.println("Usage: replay <journal-dir> [from-date] [to-date]");
+            System.err.println("       audit <journal-dir> <match-id>");
+            System.exit(2);
+        }
+        ScoreJournalReader reader = new ScoreJournalReader(Paths.get(args[1]));
+        if (args[0].equals("replay")) {
+            replay(reader,
+                    args.length > 2 ? LocalDate.parse(args[2]) : null,
+                    args.length > 3 ? LocalDate.parse(args[3]) : null);
+        } else {
+            if (args.length < 3) {
+                System.err.println("audit needs a match id");
+                System.exit(2);
+            }
+            audit(reader, Long.parseLong(args[2]));
+        }
+    }
+
+    private static void replay(ScoreJournalReader reader, LocalDate from, LocalDate to) throws IOException {
+        Map<Long, ScoreJournalRecord> last = new TreeMap<>();
+        Map<Long, Integer> changes = new TreeMap<>();
+        reader.forEach(from, to, record -> {
+            last.put(record.matchId(), record);
+            changes.merge(record.matchId(), 1, Integer::sum);
+        });
+        for (ScoreJournalRecord record : last.values()) {
+            System.out.printf("match %d  tournament %d  %-24s %s  (%d changes, last %s)%n",
+                    record.matchId(), record.tournamentId(), text(record.score()),
+                    winner(record.score()), changes.get(record.matchId()), record.getRecordedAt());
+        }
+        System.out.printf("%d matches%n", last.size());
+    }
+
+    private static void audit(ScoreJournalReader reader, long matchId) throws IOException {
+        MatchScore[] expected = { null };
+        int[] counts = new int[2];
+        reader.forEach(null, null, record -> {
+            if (record.matchId() != matchId) {
+                return;
+            }
+            counts[0]++;
+            boolean broken = counts[0] > 1 && !Objects.equals(record.previousScore(), expected[0]);
+            if (broken) {
+                counts[1]++;
+            }
+            System.out.printf("%s  by user %d  %s -> %s%s%n",
+                    record.getRecordedAt(), record.updatedById(),
+                    text(record.previousScore()), text(record.score()),
+                    broken ? "   ! previous score was recorded as " + text(expected[0]) : "");
+            expected[0] = record.score();
+        });
+        System.out.printf("%d changes, %d not continuing the previous one%n", counts[0], counts[1]);
+    }
+
+    private static String text(MatchScore score) {
+        return score != null ? score.toString() : "-";
+    }
+
+    private static String winner(MatchScore score) {
+        return score != null && score.isFinished() ? "won by player" + score.getWinner() : "undecided";
+    }
+}
@@ -3,24 +3,54 @@ package org.example.tennistournament;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.tennistournament.builder.TournamentBuilder;
+import org.example.tennistournament.builder.UserBuilder;
+import org.example.tennistournament.config.ScoreStorageMigration;
+import org.example.tennistournament.config.StandingsMigration;
+import org.example.tennistournament.model.Court;
 import org.example.tennistournament.model.Role;
+import org.example.tennistournament.model.TennisMatch;
 import org.example.tennistournament.model.Tournament;
+import org.example.tennistournament.model.User;
+import org.example.tennistournament.repository.CourtRepository;
+import org.example.tennistournament.repository.CourtScheduleRepository;
+import org.example.tennistournament.repository.MatchPointEventRepository;
+import org.example.tennistournament.repository.TennisMatchRepository;
 import org.example.tennistournament.repository.TournamentRepository;
+import org.example.tennistournament.repository.UserRepository;
+import org.example.tennistournament.security.JwtService;
+import org.example.tennistournament.security.UserAuthStateCache;
+import org.example.tennistournament.service.MatchIntervalIndex;
+import org.example.tennistournament.service.TennisMatchService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -40,6 +70,42 @@ public class TennisTournamentApplicationTests {
     @Autowired
     private TournamentRepository tournamentRepository;
 
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private TennisMatchRepository tennisMatchRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TennisMatchService tennisMatchService;
+
+    @Autowired
+    private MatchPointEventRepository matchPointEventRepository;
+
+    @Autowired
+    private MatchIntervalIndex matchIntervalIndex;
+
+    @Autowired
+    private CourtRepository courtRepository;
+
+    @Autowired
+    private CourtScheduleRepository courtScheduleRepository;
+
+    @Autowired
+    private ScoreStorageMigration scoreStorageMigration;
+
+    @Autowired
+    private UserAuthStateCache userAuthStateCache;
+
+    @Autowired
+    private StandingsMigration standingsMigration;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private Long adminId;
     private String adminToken;
     private Long playerId;
@@ -115,6 +181,29 @@ public class TennisTournamentApplicationTests {
                 .andExpect(content().string("User deleted successfully"));
     }
 
+    @Test
+    void testDeleteRegisteredPlayer_RemovesRosterRowOnly() throws Exception {
+        Tournament t = tournamentRepository.save(TournamentBuilder.builder()
+                .name("Roster Open")
+                .startDate(LocalDate.now().plusDays(2))
+                .endDate(LocalDate.now().plusDays(3))
+                .registrationDeadline(LocalDate.now().plusDays(1))
+                .maxPlayers(4)
+                .build());
+        registerAndApprove(t.getId(), playerId, playerToken);
+        RegisteredUser other = registerUser("rosterp2", "rosterp2@x.com", "pass123", Role.PLAYER);
+        registerAndApprove(t.getId(), other.userId(), other.token());
+        assertEquals(2, tournamentRepository.countPlayers(t.getId()));
+        assertTrue(tournamentRepository.isPlayerRegistered(t.getId(), playerId));
+
+        mockMvc.perform(delete("/api/admin/users/" + playerId)
+                        .param("currentUserId", adminId.toString())
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk());
+
+        assertEquals(List.of(other.userId()), tournamentRepository.findPlayerIds(t.getId()));
+    }
+
     @Test
     void testTournamentRegistration_Success() throws Exception {
         Tournament t = TournamentBuilder.builder()
@@ -359,6 +448,529 @@ public class TennisTournamentApplicationTests {
                 .andExpect(content().string("Scheduling conflict: participant(s) already have a match overlapping this time!"));
     }
 
+    @Test
+    void testCreateMatchBatch_PerItemErrorsAndAtomic() throws Exception {
+        Tournament t = TournamentBuilder.builder()
+                .name("Batch Cup")
+                .startDate(LocalDate.now().plusDays(1))
+                .endDate(LocalDate.now().plusDays(3))
+                .registrationDeadline(LocalDate.now().plusDays(1))
+                .build();
+        t = tournamentRepository.save(t);
+
+        var p2 = registerUser("p2b", "p2b@xyz.com", "pass123", Role.PLAYER);
+        registerAndApprove(t.getId(), playerId, playerToken);
+        registerAndApprove(t.getId(), p2.userId(), p2.token());
+
+        LocalDateTime day = t.getStartDate().atTime(10, 0);
+        String item = """
+                {"player1Id": %d, "player2Id": %d, "refereeId": %d, "startTime": "%s", "endTime": "%s"}""";
+        String body = """
+                {"tournamentId": %d, "matches": [%s, %s, %s]}
+                """.formatted(t.getId(),
+                item.formatted(playerId, p2.userId(), refereeId, day, day.plusHours(2)),
+                item.formatted(playerId, p2.userId(), refereeId, day.plusHours(1), day.plusHours(3)),
+                item.formatted(playerId, playerId, refereeId, day.plusHours(4), day.plusHours(5)));
+
+        mockMvc.perform(post("/api/matches/batch")
+                        .param("currentUserId", adminId.toString())
+                        .contentType("application/json")
+                        .content(body)
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.matches", hasSize(1)))
+                .andExpect(jsonPath("$.errors", hasSize(2)))
+                .andExpect(jsonPath("$.errors[0].item").value(2))
+                .andExpect(jsonPath("$.errors[1].message").value("Player1 and Player2 cannot be the same user!"));
+
+        String atomic = """
+                {"tournamentId": %d, "atomic": true, "matches": [%s, %s]}
+                """.formatted(t.getId(),
+                item.formatted(playerId, p2.userId(), refereeId, day.plusDays(1), day.plusDays(1).plusHours(2)),
+                item.formatted(playerId, p2.userId(), refereeId, day.plusHours(1), day.plusHours(2)));
+        mockMvc.perform(post("/api/matches/batch")
+                        .param("currentUserId", adminId.toString())
+                        .contentType("application/json")
+                        .content(atomic)
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.created").value(0))
+                .andExpect(jsonPath("$.errors", hasSize(1)));
+
+        mockMvc.perform(get("/api/matches/tournament/" + t.getId())
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void testGenerateRoundRobinDraw() throws Exception {
+        Tournament t = TournamentBuilder.builder()
+                .name("Draw Cup")
+                .startDate(LocalDate.now().plusDays(1))
+                .endDate(LocalDate.now().plusDays(1))
+                .registrationDeadline(LocalDate.now().plusDays(1))
+                .build();
+        t = tournamentRepository.save(t);
+
+        var p2 = registerUser("p2d", "p2d@xyz.com", "pass123", Role.PLAYER);
+        var p3 = registerUser("p3d", "p3d@xyz.com", "pass123", Role.PLAYER);
+        registerAndApprove(t.getId(), playerId, playerToken);
+        registerAndApprove(t.getId(), p2.userId(), p2.token());
+        registerAndApprove(t.getId(), p3.userId(), p3.token());
+
+        // 3 players -> 3 matches, one referee -> one match per slot
+        mockMvc.perform(post("/api/tournaments/" + t.getId() + "/draw")
+                        .param("currentUserId", adminId.toString())
+                        .contentType("application/json")
+                        .content("""
+                                {"format": "ROUND_ROBIN", "courts": 2, "slotMinutes": 60,
+                                 "dayStart": "09:00", "dayEnd": "12:00"}
+                                """)
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(3))
+                .andExpect(jsonPath("$.matches[2].startTime").value(t.getStartDate() + "T11:00:00"));
+
+        // a tournament is drawn only once
+        mockMvc.perform(post("/api/tournaments/" + t.getId() + "/draw")
+                        .param("currentUserId", adminId.toString())
+                        .contentType("application/json")
+                        .content("{\"format\": \"KNOCKOUT\"}")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Tournament already has matches!"));
+    }
+
+    @Test
+    void testRefereeAutoAssignmentAndRebalance() throws Exception {
+        Tournament t = TournamentBuilder.builder()
+                .name("Referee Cup")
+                .startDate(LocalDate.now().plusDays(1))
+                .endDate(LocalDate.now().plusDays(1))
+                .registrationDeadline(LocalDate.now().plusDays(1))
+                .build();
+        t = tournamentRepository.save(t);
+
+        var p2 = registerUser("p2r", "p2r@xyz.com", "pass123", Role.PLAYER);
+        var ref2 = registerUser("ref2", "ref2@xyz.com", "pass123", Role.REFEREE);
+        registerAndApprove(t.getId(), playerId, playerToken);
+        registerAndApprove(t.getId(), p2.userId(), p2.token());
+
+        // both matches on the same referee
+        LocalDateTime day = t.getStartDate().atTime(9, 0);
+        String item = """
+                {"player1Id": %d, "player2Id": %d, "refereeId": %d, "startTime": "%s", "endTime": "%s"}""";
+        mockMvc.perform(post("/api/matches/batch")
+                        .param("currentUserId", adminId.toString())
+                        .contentType("application/json")
+                        .content("""
+                                {"tournamentId": %d, "matches": [%s, %s]}
+                                """.formatted(t.getId(),
+                                item.formatted(playerId, p2.userId(), refereeId, day, day.plusHours(1)),
+                                item.formatted(playerId, p2.userId(), refereeId, day.plusHours(2), day.plusHours(3))))
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2));
+
+        // the idle referee is suggested and picked when no referee is given
+        mockMvc.perform(get("/api/matches/referee-suggestion")
+                        .param("tournamentId", t.getId().toString())
+                        .param("startTime", day.plusHours(4).toString())
+                        .param("endTime", day.plusHours(5).toString())
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(ref2.userId()));
+
+        mockMvc.perform(post("/api/matches/tournament/" + t.getId() + "/rebalance-referees")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.matches").value(2))
+                .andExpect(jsonPath("$.reassigned").value(1))
+                .andExpect(jsonPath("$.minutesByReferee['" + refereeId + "']").value(60))
+                .andExpect(jsonPath("$.minutesByReferee['" + ref2.userId() + "']").value(60));
+
+        mockMvc.perform(post("/api/matches/create")
+                        .param("currentUserId", adminId.toString())
+                        .param("tournamentId", t.getId().toString())
+                        .param("player1Id", playerId.toString())
+                        .param("player2Id", p2.userId().toString())
+                        .param("startTime", day.plusHours(4).toString())
+                        .param("endTime", day.plusHours(5).toString())
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.refereeId").exists());
+    }
+
+    @Test
+    void testFindFreeSlots() throws Exception {
+        Tournament t = TournamentBuilder.builder()
+                .name("Slot Cup")
+                .startDate(LocalDate.now().plusDays(1))
+                .endDate(LocalDate.now().plusDays(1))
+                .registrationDeadline(LocalDate.now().plusDays(1))
+                .build();
+        t = tournamentRepository.save(t);
+
+        var p2 = registerUser("p2s", "p2s@xyz.com", "pass123", Role.PLAYER);
+        registerAndApprove(t.getId(), playerId, playerToken);
+        registerAndApprove(t.getId(), p2.userId(), p2.token());
+
+        LocalDateTime day = t.getStartDate().atTime(9, 0);
+        mockMvc.perform(post("/api/matches/create")
+                        .param("currentUserId", adminId.toString())
+                        .param("tournamentId", t.getId().toString())
+                        .param("player1Id", playerId.toString())
+                        .param("player2Id", p2.userId().toString())
+                        .param("refereeId", refereeId.toString())
+                        .param("startTime", day.toString())
+                        .param("endTime", day.plusHours(1).toString())
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk());
+
+        String date = t.getStartDate().toString();
+        mockMvc.perform(get("/api/matches/free-slots")
+                        .param("tournamentId", t.getId().toString())
+                        .param("playerIds", playerId.toString())
+                        .param("refereeId", refereeId.toString())
+                        .param("durationMinutes", "60")
+                        .param("from", date + "T08:00:00")
+                        .param("count", "3")
+                        .param("dayStart", "08:00")
+                        .param("dayEnd", "12:00")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].startTime").value(date + "T08:00:00"))
+                .andExpect(jsonPath("$[1].startTime").value(date + "T10:00:00"))
+                .andExpect(jsonPath("$[2].startTime").value(date + "T10:30:00"));
+    }
+
+    @Test
+    void testCourtAllocationAndOccupancy() throws Exception {
+        Tournament t = tournamentRepository.save(TournamentBuilder.builder()
+                .name("Court Cup")
+                .startDate(LocalDate.now().plusDays(1))
+                .endDate(LocalDate.now().plusDays(1))
+                .registrationDeadline(LocalDate.now().plusDays(1))
+                .maxPlayers(4)
+                .build());
+        var p2 = registerUser("p2c", "p2c@xyz.com", "pass123", Role.PLAYER);
+        var p3 = registerUser("p3c", "p3c@xyz.com", "pass123", Role.PLAYER);
+        var p4 = registerUser("p4c", "p4c@xyz.com", "pass123", Role.PLAYER);
+        var ref2 = registerUser("ref2c", "ref2c@xyz.com", "pass123", Role.REFEREE);
+        registerAndApprove(t.getId(), playerId, playerToken);
+        registerAndApprove(t.getId(), p2.userId(), p2.token());
+        registerAndApprove(t.getId(), p3.userId(), p3.token());
+        registerAndApprove(t.getId(), p4.userId(), p4.token());
+
+        Long[] courts = new Long[2];
+        for (int i = 0; i < 2; i++) {
+            MvcResult res = mockMvc.perform(post("/api/tournaments/" + t.getId() + "/courts")
+                            .param("name", "Court " + (i + 1))
+                            .header("Authorization", "Bearer " + adminToken))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            courts[i] = Long.valueOf((Integer) objectMapper.readValue(res.getResponse().getContentAsString(),
+                    new TypeReference<Map<String, Object>>() {}).get("id"));
+        }
+
+        LocalDateTime nine = t.getStartDate().atTime(9, 0);
+        // no court given: the first free one
+        mockMvc.perform(matchRequest(t.getId(), playerId, p2.userId(), refereeId, null, nine, nine.plusHours(1)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.courtId").value(courts[0]));
+        // back to back on the same court
+        mockMvc.perform(matchRequest(t.getId(), playerId, p2.userId(), refereeId, courts[0],
+                        nine.plusHours(1), nine.plusHours(2)))
+                .andExpect(status().isOk());
+        // other participants, but the court is taken
+        mockMvc.perform(matchRequest(t.getId(), p3.userId(), p4.userId(), ref2.userId(), courts[0],
+                        nine.plusMinutes(90), nine.plusMinutes(150)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(matchRequest(t.getId(), p3.userId(), p4.userId(), ref2.userId(), null,
+                        nine.plusMinutes(90), nine.plusMinutes(150)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.courtId").value(courts[1]));
+
+        String date = t.getStartDate().toString();
+        mockMvc.perform(get("/api/tournaments/" + t.getId() + "/courts/occupancy")
+                        .param("date", date)
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.busyMinutes").value(180))
+                .andExpect(jsonPath("$.byCourt[0].busy", hasSize(1)))
+                .andExpect(jsonPath("$.byCourt[0].busy[0].startTime").value(date + "T09:00:00"))
+                .andExpect(jsonPath("$.byCourt[0].busy[0].endTime").value(date + "T11:00:00"))
+                .andExpect(jsonPath("$.allCourtsBusy", hasSize(1)))
+                .andExpect(jsonPath("$.allCourtsBusy[0].startTime").value(date + "T10:30:00"))
+                .andExpect(jsonPath("$.allCourtsBusy[0].endTime").value(date + "T11:00:00"));
+
+        // deleting a player frees the court time of their matches
+        mockMvc.perform(delete("/api/admin/users/" + p2.userId())
+                        .param("currentUserId", adminId.toString())
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/tournaments/" + t.getId() + "/courts/occupancy")
+                        .param("date", date)
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(jsonPath("$.busyMinutes").value(60))
+                .andExpect(jsonPath("$.byCourt[0].busy", hasSize(0)));
+    }
+
+    @Test
+    void testRescheduleAfternoon_ReportsBlockedMatches() throws Exception {
+        Tournament t = tournamentRepository.save(TournamentBuilder.builder()
+                .name("Rain Cup")
+                .startDate(LocalDate.now().plusDays(1))
+                .endDate(LocalDate.now().plusDays(2))
+                .registrationDeadline(LocalDate.now().plusDays(1))
+                .maxPlayers(5)
+                .build());
+        registerAndApprove(t.getId(), playerId, playerToken);
+        List<Long> others = new ArrayList<>();
+        for (int i = 2; i <= 5; i++) {
+            var p = registerUser("p" + i + "r", "p" + i + "r@xyz.com", "pass123", Role.PLAYER);
+            registerAndApprove(t.getId(), p.userId(), p.token());
+            others.add(p.userId());
+        }
+        Long p2 = others.get(0), p3 = others.get(1), p4 = others.get(2), p5 = others.get(3);
+        var ref2 = registerUser("ref2r", "ref2r@xyz.com", "pass123", Role.REFEREE);
+
+        LocalDateTime two = t.getStartDate().atTime(14, 0);
+        Long a = createdId(matchRequest(t.getId(), playerId, p2, refereeId, null, two, two.plusHours(1)));
+        Long b = createdId(matchRequest(t.getId(), p3, p4, ref2.userId(), null, two.plusHours(1), two.plusHours(2)));
+        // starts after the selected period and stays: blocks the first match via p2
+        Long e = createdId(matchRequest(t.getId(), p2, p5, refereeId, null, two.plusMinutes(150), two.plusMinutes(210)));
+
+        String body = """
+                {"date":"%s","fromTime":"14:00","untilTime":"16:00","shiftMinutes":120,"atomic":%s}
+                """;
+        mockMvc.perform(post("/api/matches/tournament/" + t.getId() + "/reschedule")
+                        .contentType("application/json")
+                        .content(body.formatted(t.getStartDate(), true))
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.moved").value(0));
+
+        mockMvc.perform(post("/api/matches/tournament/" + t.getId() + "/reschedule")
+                        .contentType("application/json")
+                        .content(body.formatted(t.getStartDate(), false))
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.selected").value(2))
+                .andExpect(jsonPath("$.moved").value(1))
+                .andExpect(jsonPath("$.matches[0].id").value(b))
+                .andExpect(jsonPath("$.matches[0].startTime").value(t.getStartDate() + "T17:00:00"))
+                .andExpect(jsonPath("$.notMoved[0].matchId").value(a))
+                .andExpect(jsonPath("$.notMoved[0].reason").value("Conflicts with match " + e));
+
+        // the index follows the move: the old slot of b is free again, the new one is taken
+        mockMvc.perform(matchRequest(t.getId(), p3, p4, ref2.userId(), null, two.plusHours(1), two.plusHours(2)))
+                .andExpect(status().isOk());
+        mockMvc.perform(matchRequest(t.getId(), p3, p5, ref2.userId(), null, two.plusHours(3), two.plusHours(4)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testConcurrentMatchCreation_NoDoubleBooking() throws Exception {
+        createConcurrentlyWithoutDoubleBooking();
+    }
+
+    @Test
+    void testConcurrentMatchCreation_IndexDisabled_NoDoubleBooking() throws Exception {
+        // the overlap check then reads the database, with a locking read under the participant locks
+        ReflectionTestUtils.setField(matchIntervalIndex, "enabled", false);
+        createConcurrentlyWithoutDoubleBooking();
+    }
+
+    @Test
+    void testConcurrentMatchCreation_OneCourtNotDoubleBooked() throws Exception {
+        List<User> players = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            players.add(userRepository.save(UserBuilder.builder().username("cp" + i).email("cp" + i + "@x.com")
+                    .password("x").role(Role.PLAYER).build()));
+        }
+        List<Long> refs = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            refs.add(userRepository.save(UserBuilder.builder().username("cr" + i).email("cr" + i + "@x.com")
+                    .password("x").role(Role.REFEREE).build()).getId());
+        }
+        Tournament tour = TournamentBuilder.builder()
+                .name("OneCourtCup")
+                .startDate(LocalDate.now().plusDays(1))
+                .endDate(LocalDate.now().plusDays(1))
+                .registrationDeadline(LocalDate.now())
+                .maxPlayers(4)
+                .minPlayers(2)
+                .build();
+        tour.getPlayers().addAll(players);
+        tour = tournamentRepository.save(tour);
+        Long tournamentId = tour.getId();
+        courtRepository.save(new Court(tour, "Centre Court"));
+
+        // each round: two matches without shared participants race for the only court;
+        // the first booking of the day is part of the race too
+        LocalDateTime nine = LocalDate.now().plusDays(1).atTime(9, 0);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        int rounds = 6;
+        for (int round = 0; round < rounds; round++) {
+            LocalDateTime start = nine.plusHours(round);
+            CountDownLatch go = new CountDownLatch(1);
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int w = 0; w < 2; w++) {
+                Long p1 = players.get(2 * w).getId();
+                Long p2 = players.get(2 * w + 1).getId();
+                Long ref = refs.get(w);
+                results.add(pool.submit(() -> {
+                    SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                            "admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+                    go.await();
+                    try {
+                        tennisMatchService.createMatch(tournamentId, p1, p2, ref, start, start.plusHours(1), adminId);
+                        return true;
+                    } catch (IllegalArgumentException noCourt) {
+                        assertEquals("No free court for this time slot!", noCourt.getMessage());
+                        return false;
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                }));
+            }
+            go.countDown();
+            int created = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(60, TimeUnit.SECONDS)) {
+                    created++;
+                }
+            }
+            assertEquals(1, created, "round " + round);
+        }
+        pool.shutdown();
+
+        assertEquals(rounds, tennisMatchRepository.findByTournamentId(tournamentId).size());
+        assertEquals(1, courtScheduleRepository.findByTournamentIdAndDate(tournamentId, nine.toLocalDate()).size());
+    }
+
+    private void createConcurrentlyWithoutDoubleBooking() throws Exception {
+        List<User> players = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            players.add(userRepository.save(UserBuilder.builder().username("sp" + i).email("sp" + i + "@x.com")
+                    .password("x").role(Role.PLAYER).build()));
+        }
+        List<Long> refs = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            refs.add(userRepository.save(UserBuilder.builder().username("sr" + i).email("sr" + i + "@x.com")
+                    .password("x").role(Role.REFEREE).build()).getId());
+        }
+        Tournament tour = TournamentBuilder.builder()
+                .name("StressCup")
+                .startDate(LocalDate.now().plusDays(1))
+                .endDate(LocalDate.now().plusDays(1))
+                .registrationDeadline(LocalDate.now())
+                .maxPlayers(32)
+                .minPlayers(2)
+                .build();
+        tour.getPlayers().addAll(players);
+        Long tournamentId = tournamentRepository.save(tour).getId();
+
+        // 64 writers over 16 pairs, 4 referees and 4 overlapping one-hour slots
+        int writers = 64;
+        LocalDateTime nine = LocalDate.now().plusDays(1).atTime(9, 0);
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < writers; i++) {
+            int pair = i % 16;
+            Long p1 = players.get(2 * pair).getId();
+            Long p2 = players.get(2 * pair + 1).getId();
+            Long ref = refs.get(i % 4);
+            LocalDateTime start = nine.plusMinutes(30L * (i / 16));
+            results.add(pool.submit(() -> {
+                SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                        "admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+                go.await();
+                try {
+                    tennisMatchService.createMatch(tournamentId, p1, p2, ref, start, start.plusHours(1), adminId);
+                    return true;
+                } catch (IllegalArgumentException conflict) {
+                    return false;
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            }));
+        }
+        go.countDown();
+        int created = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(60, TimeUnit.SECONDS)) {
+                created++;
+            }
+        }
+        pool.shutdown();
+
+        List<TennisMatch> matches = tennisMatchRepository.findByTournamentId(tournamentId);
+        assertEquals(created, matches.size());
+        assertTrue(created > 0);
+        for (TennisMatch a : matches) {
+            for (TennisMatch b : matches) {
+                if (a.getId() < b.getId()
+                        && a.getStartTime().isBefore(b.getEndTime()) && b.getStartTime().isBefore(a.getEndTime())) {
+                    List<Long> shared = new ArrayList<>(List.of(
+                            a.getPlayer1().getId(), a.getPlayer2().getId(), a.getReferee().getId()));
+                    shared.retainAll(List.of(b.getPlayer1().getId(), b.getPlayer2().getId(), b.getReferee().getId()));
+                    assertTrue(shared.isEmpty(), "double booking of " + shared);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testOverlapCheck_ConfirmsIndexWithDatabase() throws Exception {
+        Long matchId = createOneMatchAndReturnId();
+        TennisMatch match = tennisMatchRepository.findById(matchId).orElseThrow();
+        Long tournamentId = match.getTournament().getId();
+        Long opponentId = match.getPlayer2().getId();
+        LocalDateTime moved = match.getStartTime().plusHours(2);
+
+        // moved behind the index's back, as another instance would
+        jdbcTemplate.update("UPDATE tennis_match SET start_time = ?, end_time = ? WHERE id = ?",
+                moved, moved.plusHours(1), matchId);
+        mockMvc.perform(matchRequest(tournamentId, playerId, opponentId, refereeId, null,
+                        moved.plusMinutes(30), moved.plusMinutes(90)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testOverlapQueryCoversEveryRole() throws Exception {
+        Long matchId = createOneMatchAndReturnId();
+        LocalDateTime start = LocalDate.now().plusDays(1).atTime(9, 0);
+
+        // player and referee of the same match: reported once
+        List<TennisMatch> both = tennisMatchRepository.findOverlappingMatches(
+                List.of(playerId, refereeId), start.plusMinutes(30), start.plusMinutes(45));
+        assertEquals(1, both.size());
+        assertEquals(matchId, both.get(0).getId());
+
+        assertEquals(1, tennisMatchRepository.findOverlappingMatches(
+                List.of(refereeId), start.minusHours(1), start.plusMinutes(1)).size());
+
+        // touching intervals do not overlap
+        assertTrue(tennisMatchRepository.findOverlappingMatches(
+                List.of(playerId, refereeId), start.plusHours(1), start.plusHours(2)).isEmpty());
+
+        // the interval index loader is built the same way and also reports each match once
+        List<TennisMatchRepository.MatchInterval> intervals =
+                tennisMatchRepository.findIntervalsByParticipants(List.of(playerId, refereeId));
+        assertEquals(1, intervals.size());
+        assertEquals(matchId, intervals.get(0).getId());
+        assertEquals(playerId, intervals.get(0).getPlayer1Id());
+        assertEquals(refereeId, intervals.get(0).getRefereeId());
+        assertEquals(start, intervals.get(0).getStartTime());
+        assertEquals(start.plusHours(1), intervals.get(0).getEndTime());
+    }
+
     @Test
     void testUpdateAccount_Success() throws Exception {
         String newUsername = "playerUpdated";
@@ -375,6 +987,19 @@ public class TennisTournamentApplicationTests {
                 .andExpect(jsonPath("$.email").value(newEmail));
     }
 
+    @Test
+    void testUpdateAccount_OldTokenRejected() throws Exception {
+        mockMvc.perform(put("/api/users/" + playerId)
+                        .param("newEmail", "playerChanged@xyz.com")
+                        .header("Authorization", "Bearer " + playerToken))
+                .andExpect(status().isOk());
+
+        // the token still carries the previous user version
+        mockMvc.perform(get("/api/users/" + playerId)
+                        .header("Authorization", "Bearer " + playerToken))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     void testUpdateAccount_DuplicateUsername() throws Exception {
         var player2Reg = registerUser("player2", "player2@xyz.com", "pass123", Role.PLAYER);
@@ -503,6 +1128,73 @@ public class TennisTournamentApplicationTests {
         org.assertj.core.api.Assertions.assertThat(refreshMap.get("refreshToken")).isNotNull();
     }
 
+    @Test
+    void testRefreshToken_RotatesAccessRowInPlace() throws Exception {
+        var login = mockMvc.perform(post("/api/users/login")
+                        .param("username", "player")
+                        .param("password", "pass123"))
+                .andExpect(status().isOk())
+                .andReturn();
+        Map<String, Object> map = objectMapper.readValue(
+                login.getResponse().getContentAsString(), new TypeReference<>() {});
+        String access = (String) map.get("accessToken");
+        String refresh = (String) map.get("refreshToken");
+        String countAccessRows = "SELECT COUNT(*) FROM token WHERE user_id = ? AND token_type = 'ACCESS'";
+        Long accessRows = jdbcTemplate.queryForObject(countAccessRows, Long.class, playerId);
+        for (int i = 0; i < 3; i++) {
+            var refreshed = mockMvc.perform(post("/api/users/refresh-token")
+                            .header("Authorization", "Bearer " + refresh))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            Map<String, Object> next = objectMapper.readValue(
+                    refreshed.getResponse().getContentAsString(), new TypeReference<>() {});
+            // the replaced access token is revoked
+            mockMvc.perform(get("/api/users/" + playerId)
+                            .header("Authorization", "Bearer " + access))
+                    .andExpect(status().isForbidden());
+            access = (String) next.get("accessToken");
+            refresh = (String) next.get("refreshToken");
+        }
+        mockMvc.perform(get("/api/users/" + playerId)
+                        .header("Authorization", "Bearer " + access))
+                .andExpect(status().isOk());
+        // one access row per session, updated in place
+        assertEquals(accessRows, jdbcTemplate.queryForObject(countAccessRows, Long.class, playerId));
+    }
+
+    @Test
+    void testRefreshTokenReuseRevokesSession() throws Exception {
+        var res = mockMvc.perform(post("/api/users/login")
+                        .param("username", "player")
+                        .param("password", "pass123"))
+                .andExpect(status().isOk())
+                .andReturn();
+        Map<String, Object> map = objectMapper.readValue(
+                res.getResponse().getContentAsString(), new TypeReference<>() {});
+        String oldRefresh = (String) map.get("refreshToken");
+
+        // a refresh token is not an access token
+        mockMvc.perform(get("/api/users/" + playerId)
+                        .header("Authorization", "Bearer " + oldRefresh))
+                .andExpect(status().isForbidden());
+
+        var refreshRes = mockMvc.perform(post("/api/users/refresh-token")
+                        .header("Authorization", "Bearer " + oldRefresh))
+                .andExpect(status().isOk())
+                .andReturn();
+        Map<String, Object> refreshMap = objectMapper.readValue(
+                refreshRes.getResponse().getContentAsString(), new TypeReference<>() {});
+        String newRefresh = (String) refreshMap.get("refreshToken");
+
+        // replaying the rotated-out token burns the whole session
+        mockMvc.perform(post("/api/users/refresh-token")
+                        .header("Authorization", "Bearer " + oldRefresh))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/users/refresh-token")
+                        .header("Authorization", "Bearer " + newRefresh))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testLogoutAndUseOldToken() throws Exception {
         var login = mockMvc.perform(post("/api/users/login")
@@ -523,6 +1215,137 @@ public class TennisTournamentApplicationTests {
                 .andExpect(status().isForbidden());
     }
 
+    @Test
+    void testAdminLogoutEverywhere() throws Exception {
+        mockMvc.perform(post("/api/admin/users/" + playerId + "/logout-everywhere")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/users/" + playerId)
+                        .header("Authorization", "Bearer " + playerToken))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void testAuthState_ReReadAfterTtl() throws Exception {
+        mockMvc.perform(get("/api/users/" + playerId)
+                        .header("Authorization", "Bearer " + playerToken))
+                .andExpect(status().isOk());
+
+        // logged out everywhere through another instance: this one re-reads once the entry expires
+        jdbcTemplate.update("UPDATE users SET token_generation = token_generation + 1 WHERE id = ?", playerId);
+        ReflectionTestUtils.setField(userAuthStateCache, "ttlNanos", 0L);
+        mockMvc.perform(get("/api/users/" + playerId)
+                        .header("Authorization", "Bearer " + playerToken))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void testStatelessMode_LogoutRevokesAccessToken() throws Exception {
+        ReflectionTestUtils.setField(jwtService, "mode", "stateless");
+
+        var login = mockMvc.perform(post("/api/users/login")
+                        .param("username", "player")
+                        .param("password", "pass123"))
+                .andExpect(status().isOk())
+                .andReturn();
+        Map<String, Object> map = objectMapper.readValue(
+                login.getResponse().getContentAsString(), new TypeReference<>() {});
+        String accessToken = (String) map.get("accessToken");
+
+        mockMvc.perform(get("/api/users/" + playerId)
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/users/logout")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/users/" + playerId)
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void testAdminBulkImportUsers() throws Exception {
+        String body = """
+                [
+                  {"username": "club1", "email": "club1@xyz.com", "password": "pass123"},
+                  {"username": "club2", "email": "club2@xyz.com", "password": "pass123", "role": "REFEREE"},
+                  {"username": "player", "email": "dup@xyz.com", "password": "pass123"},
+                  {"username": "club3", "email": "club3@xyz.com", "password": "123"}
+                ]
+                """;
+        mockMvc.perform(post("/api/admin/users/import")
+                        .contentType("application/json")
+                        .content(body)
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.errors", hasSize(2)))
+                .andExpect(jsonPath("$.errors[0].row").value(4))
+                .andExpect(jsonPath("$.errors[1].message").value("Username already exists!"));
+
+        mockMvc.perform(post("/api/users/login")
+                        .param("username", "club2")
+                        .param("password", "pass123"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.role").value("REFEREE"));
+    }
+
+    @Test
+    void testAdminBulkImportUsers_IgnoresCaseAndValidatesEmail() throws Exception {
+        String body = """
+                [
+                  {"username": "Alice", "email": "alice1@xyz.com", "password": "pass123"},
+                  {"username": "alice", "email": "alice2@xyz.com", "password": "pass123"},
+                  {"username": "bob", "email": "bob@", "password": "pass123"},
+                  {"username": "carol", "email": "ALICE1@xyz.com", "password": "pass123"}
+                ]
+                """;
+        mockMvc.perform(post("/api/admin/users/import")
+                        .contentType("application/json")
+                        .content(body)
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.errors", hasSize(3)))
+                .andExpect(jsonPath("$.errors[0].message").value("Duplicate username in upload!"))
+                .andExpect(jsonPath("$.errors[1].row").value(3))
+                .andExpect(jsonPath("$.errors[1].message").value("Email is missing or invalid!"))
+                .andExpect(jsonPath("$.errors[2].message").value("Duplicate email in upload!"));
+    }
+
+    @Test
+    void testAdminBulkImportUsers_Csv() throws Exception {
+        String csv = """
+                username,email,password,role
+                club1,club1@xyz.com,"pa,ss""123"
+                club2,club2@xyz.com,123,REFEREE
+                """;
+        mockMvc.perform(post("/api/admin/users/import")
+                        .contentType("text/csv")
+                        .content(csv)
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.errors", hasSize(1)))
+                .andExpect(jsonPath("$.errors[0].row").value(3)) // line in the file, header included
+                .andExpect(jsonPath("$.errors[0].username").value("club2"));
+
+        // the comma and the doubled quote belong to the password
+        mockMvc.perform(post("/api/users/login")
+                        .param("username", "club1")
+                        .param("password", "pa,ss\"123"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/admin/users/import")
+                        .contentType("text/csv")
+                        .content("club3,club3@xyz.com,\"pass123\n")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testListAllRegistrationRequests() throws Exception {
         Tournament t = TournamentBuilder.builder()
@@ -977,6 +1800,401 @@ public class TennisTournamentApplicationTests {
                 .andExpect(jsonPath("$.score").value("6-3,6-4"));
     }
 
+    @Test
+    void testUpdateScore_TennisRulesAndWinner() throws Exception {
+        Long matchId = createOneMatchAndReturnId();
+        for (String invalid : new String[] { "9-9-9", "6-5,6-4", "6-3,6-4,6-2", "8-6,6-4", "6-4(3),6-4", "" }) {
+            mockMvc.perform(put("/api/matches/" + matchId + "/score")
+                            .param("newScore", invalid)
+                            .param("currentUserId", adminId.toString())
+                            .header("Authorization", "Bearer " + adminToken))
+                    .andExpect(status().isBadRequest());
+        }
+
+        // unfinished: no winner yet
+        mockMvc.perform(put("/api/matches/" + matchId + "/score")
+                        .param("newScore", "6-4, 3-2")
+                        .param("currentUserId", adminId.toString())
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.score").value("6-4,3-2"))
+                .andExpect(jsonPath("$.winnerId").doesNotExist());
+
+        // tiebreaks and an advantage deciding set, stored normalized
+        mockMvc.perform(put("/api/matches/" + matchId + "/score")
+                        .param("newScore", "6-7(5), 7-6(3), 8-10")
+                        .param("currentUserId", adminId.toString())
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.score").value("6-7(5),7-6(3),8-10"))
+                .andExpect(jsonPath("$.winnerId").isNumber());
+
+        TennisMatch stored = tennisMatchRepository.findById(matchId).orElseThrow();
+        assertEquals(3, stored.getMatchScore().getSetCount());
+        assertEquals(2, stored.getMatchScore().getWinner());
+        assertEquals(5, stored.getMatchScore().getTiebreakPoints(0));
+        assertEquals(21, stored.getMatchScore().getGamesWon(1));
+    }
+
+    @Test
+    void testScoreStorageMigration_PacksLegacyBestOf3Scores() throws Exception {
+        Long matchId = createOneMatchAndReturnId();
+        // legacy rows: text only, as written before scores were packed
+        for (String[] legacy : new String[][] { { "6-4,6-3", "1" }, { "6-4,3-6,8-6", "1" }, { "4-6,6-3,2-1", "0" } }) {
+            jdbcTemplate.update("UPDATE tennis_match SET score = ?, score_data = NULL WHERE id = ?", legacy[0], matchId);
+            ReflectionTestUtils.invokeMethod(scoreStorageMigration, "migrate");
+
+            TennisMatch migrated = tennisMatchRepository.findById(matchId).orElseThrow();
+            assertTrue(migrated.hasScore(), legacy[0]);
+            assertEquals(legacy[0], migrated.getMatchScore().toString());
+            assertEquals(Integer.parseInt(legacy[1]), migrated.getMatchScore().getWinner(), legacy[0]);
+        }
+    }
+
+    @Test
+    void testStandingsMigration_BuildsFromLegacyScores() throws Exception {
+        Long matchId = createOneMatchAndReturnId();
+        TennisMatch match = tennisMatchRepository.findById(matchId).orElseThrow();
+        Long tournamentId = match.getTournament().getId();
+        Long opponentId = match.getPlayer2().getId();
+        jdbcTemplate.update("UPDATE tennis_match SET score = '6-4,3-6,8-6', score_data = NULL WHERE id = ?", matchId);
+        jdbcTemplate.update("DELETE FROM player_standing");
+
+        ReflectionTestUtils.invokeMethod(scoreStorageMigration, "migrate");
+        ReflectionTestUtils.invokeMethod(standingsMigration, "migrate");
+
+        String won = "SELECT matches_won FROM player_standing WHERE tournament_id = ? AND player_id = ?";
+        assertEquals(1L, jdbcTemplate.queryForObject(won, Long.class, tournamentId, playerId));
+        assertEquals(0L, jdbcTemplate.queryForObject(won, Long.class, tournamentId, opponentId));
+        // once built, a second run leaves the rows alone
+        ReflectionTestUtils.invokeMethod(standingsMigration, "migrate");
+        assertEquals(2L, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM player_standing", Long.class));
+    }
+
+    @Test
+    void testLiveScoreStreams_ReceiveCommittedScores() throws Exception {
+        Long matchId = createOneMatchAndReturnId();
+        Long tournamentId = tennisMatchRepository.findById(matchId).orElseThrow().getTournament().getId();
+
+        mockMvc.perform(get("/api/matches/999999/live")
+                        .header("Authorization", "Bearer " + playerToken))
+                .andExpect(status().isNotFound());
+
+        MvcResult matchStream = mockMvc.perform(get("/api/matches/" + matchId + "/live")
+                        .header("Authorization", "Bearer " + playerToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult tournamentStream = mockMvc.perform(get("/api/tournaments/" + tournamentId + "/live")
+                        .header("Authorization", "Bearer " + refToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        for (String score : new String[] { "6-4, 1-0", "6-4, 3-2" }) {
+            mockMvc.perform(put("/api/matches/" + matchId + "/score")
+                            .param("newScore", score)
+                            .param("currentUserId", adminId.toString())
+                            .header("Authorization", "Bearer " + adminToken))
+                    .andExpect(status().isOk());
+        }
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline
+                && !(matchStream.getResponse().getContentAsString().contains("6-4,3-2")
+                     && tournamentStream.getResponse().getContentAsString().contains("6-4,3-2"))) {
+            Thread.sleep(50);
+        }
+        String matchEvents = matchStream.getResponse().getContentAsString();
+        String tournamentEvents = tournamentStream.getResponse().getContentAsString();
+        // the match stream starts with the score at subscription time
+        assertTrue(matchEvents.startsWith("event:score"), matchEvents);
+        assertTrue(matchEvents.contains("\"score\":\"\""), matchEvents);
+        assertTrue(matchEvents.contains("6-4,3-2"), matchEvents);
+        assertTrue(tournamentEvents.contains("\"matchId\":" + matchId), tournamentEvents);
+        assertTrue(tournamentEvents.contains("6-4,3-2"), tournamentEvents);
+    }
+
+    @Test
+    void testPointScoring_WriteBehindLogAndSetScores() throws Exception {
+        Long matchId = createOneMatchAndReturnId();
+
+        mockMvc.perform(post("/api/matches/" + matchId + "/points")
+                        .param("player", "1")
+                        .param("currentUserId", playerId.toString())
+                        .header("Authorization", "Bearer " + playerToken))
+                .andExpect(status().isForbidden());
+        // the match is tomorrow: the referee has to wait for it
+        mockMvc.perform(post("/api/matches/" + matchId + "/points")
+                        .param("player", "1")
+                        .param("currentUserId", refereeId.toString())
+                        .header("Authorization", "Bearer " + refToken))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/matches/" + matchId + "/points/undo")
+                        .param("currentUserId", adminId.toString())
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isBadRequest());
+
+        scorePoints(matchId, 1, 3);
+        mockMvc.perform(post("/api/matches/" + matchId + "/points/undo")
+                        .param("currentUserId", adminId.toString())
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.game").value("30-0"));
+        scorePoints(matchId, 2, 1);
+        mockMvc.perform(post("/api/matches/" + matchId + "/points")
+                        .param("player", "1")
+                        .param("currentUserId", adminId.toString())
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.game").value("40-15"))
+                .andExpect(jsonPath("$.score").value("0-0"));
+        scorePoints(matchId, 1, 1);
+        assertEquals("", tennisMatchRepository.findById(matchId).orElseThrow().getScore());
+
+        // first set: the score is stored with the log up to the set point
+        scorePoints(matchId, 1, 20);
+        assertEquals("6-0", tennisMatchRepository.findById(matchId).orElseThrow().getScore());
+        assertEquals(27, matchPointEventRepository.countByMatchId(matchId));
+
+        // second set to a tiebreak, lost 5-7
+        for (int game = 0; game < 6; game++) {
+            scorePoints(matchId, 1, 4);
+            scorePoints(matchId, 2, 4);
+        }
+        for (int point = 0; point < 5; point++) {
+            scorePoints(matchId, 1, 1);
+            scorePoints(matchId, 2, 1);
+        }
+        scorePoints(matchId, 2, 2);
+        assertEquals("6-0,6-7(5)", tennisMatchRepository.findById(matchId).orElseThrow().getScore());
+
+        // within a set the events are written behind
+        scorePoints(matchId, 1, 1);
+        long expected = 27 + 48 + 12 + 1;
+        long deadline = System.currentTimeMillis() + 5000;
+        while (matchPointEventRepository.countByMatchId(matchId) < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(expected, matchPointEventRepository.countByMatchId(matchId));
+
+        scorePoints(matchId, 1, 23);
+        TennisMatch finished = tennisMatchRepository.findById(matchId).orElseThrow();
+        assertEquals("6-0,6-7(5),6-0", finished.getScore());
+        assertEquals(1, finished.getMatchScore().getWinner());
+        mockMvc.perform(post("/api/matches/" + matchId + "/points")
+                        .param("player", "2")
+                        .param("currentUserId", adminId.toString())
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isBadRequest());
+
+        // a score entered as a whole takes over from the point log
+        mockMvc.perform(put("/api/matches/" + matchId + "/score")
+                        .param("newScore", "6-0,6-7(5),6-1")
+                        .param("currentUserId", adminId.toString())
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/matches/" + matchId + "/points/undo")
+                        .param("currentUserId", adminId.toString())
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void testPointScoring_FollowsReschedule() throws Exception {
+        Tournament t = tournamentRepository.save(TournamentBuilder.builder()
+                .name("Moving Cup")
+                .startDate(LocalDate.now())
+                .endDate(LocalDate.now().plusDays(1))
+                .registrationDeadline(LocalDate.now())
+                .maxPlayers(4)
+                .build());
+        var p2 = registerUser("p2s", "p2s@xyz.com", "pass123", Role.PLAYER);
+        registerAndApprove(t.getId(), playerId, playerToken);
+        registerAndApprove(t.getId(), p2.userId(), p2.token());
+        LocalDateTime tomorrow = LocalDate.now().plusDays(1).atTime(9, 0);
+        Long matchId = createdId(matchRequest(t.getId(), playerId, p2.userId(), refereeId, null,
+                tomorrow, tomorrow.plusHours(1)));
+
+        // the admin may score ahead of time, which caches the match with tomorrow's window
+        scorePoints(matchId, 1, 1);
+        mockMvc.perform(post("/api/matches/" + matchId + "/points")
+                        .param("player", "1")
+                        .param("currentUserId", refereeId.toString())
+                        .header("Authorization", "Bearer " + refToken))
+                .andExpect(status().isBadRequest());
+
+        // moved to now: the referee scores with the new window
+        mockMvc.perform(post("/api/matches/tournament/" + t.getId() + "/reschedule")
+                        .contentType("application/json")
+                        .content("{\"matchIds\":[%d],\"windowStart\":\"%s\"}"
+                                .formatted(matchId, LocalDateTime.now().minusMinutes(5).withNano(0)))
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.moved").value(1));
+        mockMvc.perform(post("/api/matches/" + matchId + "/points")
+                        .param("player", "1")
+                        .param("currentUserId", refereeId.toString())
+                        .header("Authorization", "Bearer " + refToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.game").value("30-0"));
+    }
+
+    @Test
+    void testPointScoring_RejectedEventsDoNotBlockOtherMatches() throws Exception {
+        Long poisoned = createOneMatchAndReturnId();
+        Tournament t = tournamentRepository.save(TournamentBuilder.builder()
+                .name("Clean Cup")
+                .startDate(LocalDate.now().plusDays(3))
+                .endDate(LocalDate.now().plusDays(4))
+                .registrationDeadline(LocalDate.now().plusDays(3))
+                .maxPlayers(4)
+                .build());
+        var p3 = registerUser("p3s", "p3s@xyz.com", "pass123", Role.PLAYER);
+        var p4 = registerUser("p4s", "p4s@xyz.com", "pass123", Role.PLAYER);
+        registerAndApprove(t.getId(), p3.userId(), p3.token());
+        registerAndApprove(t.getId(), p4.userId(), p4.token());
+        LocalDateTime later = LocalDate.now().plusDays(3).atTime(9, 0);
+        Long clean = createdId(matchRequest(t.getId(), p3.userId(), p4.userId(), refereeId, null,
+                later, later.plusHours(1)));
+
+        // a stray row takes the sequence number the next point of the match will get
+        jdbcTemplate.update("INSERT INTO match_point_event (match_id, seq, kind, recorded_at) VALUES (?, 2, 1, ?)",
+                poisoned, LocalDateTime.now());
+        scorePoints(poisoned, 1, 1);
+        scorePoints(clean, 1, 1);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (matchPointEventRepository.countByMatchId(clean) < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(1, matchPointEventRepository.countByMatchId(clean));
+        assertEquals(1, matchPointEventRepository.countByMatchId(poisoned));
+        // the rejected events were dropped, not left to block the log
+        scorePoints(poisoned, 1, 1);
+        scorePoints(clean, 1, 1);
+    }
+
+    private void scorePoints(Long matchId, int player, int points) throws Exception {
+        for (int i = 0; i < points; i++) {
+            mockMvc.perform(post("/api/matches/" + matchId + "/points")
+                            .param("player", String.valueOf(player))
+                            .param("currentUserId", adminId.toString())
+                            .header("Authorization", "Bearer " + adminToken))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    void testScoreHistory_StreamedFromJournal() throws Exception {
+        LocalDateTime since = LocalDateTime.now().minusSeconds(1);
+        Long matchId = createOneMatchAndReturnId();
+        Long tournamentId = tennisMatchRepository.findById(matchId).orElseThrow().getTournament().getId();
+        for (String score : new String[] { "6-4", "6-4,7-6(3)" }) {
+            mockMvc.perform(put("/api/matches/" + matchId + "/score")
+                            .param("newScore", score)
+                            .param("currentUserId", adminId.toString())
+                            .header("Authorization", "Bearer " + adminToken))
+                    .andExpect(status().isOk());
+        }
+        // rejected updates never reach the journal
+        mockMvc.perform(put("/api/matches/" + matchId + "/score")
+                        .param("newScore", "6-4,7-8")
+                        .param("currentUserId", adminId.toString())
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/admin/tournaments/" + tournamentId + "/score-history")
+                        .param("from", since.toString())
+                        .header("Authorization", "Bearer " + playerToken))
+                .andExpect(status().isForbidden());
+        MvcResult started = mockMvc.perform(get("/api/admin/tournaments/" + tournamentId + "/score-history")
+                        .param("from", since.toString())
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.trim().split("\n");
+        assertEquals(2, lines.length, body);
+        Map<String, Object> first = objectMapper.readValue(lines[0], new TypeReference<Map<String, Object>>() {});
+        Map<String, Object> second = objectMapper.readValue(lines[1], new TypeReference<Map<String, Object>>() {});
+        assertEquals("", first.get("previousScore"));
+        assertEquals("6-4", first.get("score"));
+        assertEquals("6-4", second.get("previousScore"));
+        assertEquals("6-4,7-6(3)", second.get("score"));
+        assertEquals(1, second.get("winner"));
+        assertEquals(adminId.intValue(), second.get("updatedById"));
+        assertEquals(matchId.intValue(), second.get("matchId"));
+    }
+
+    @Test
+    void testStandings_UpdatedIncrementally() throws Exception {
+        Long matchId = createOneMatchAndReturnId();
+        Long tournamentId = tennisMatchRepository.findById(matchId).orElseThrow().getTournament().getId();
+        Long opponentId = tennisMatchRepository.findById(matchId).orElseThrow().getPlayer2().getId();
+
+        // no results yet: the tournament exists, so the standings are just empty
+        mockMvc.perform(get("/api/tournaments/" + tournamentId + "/standings")
+                        .header("Authorization", "Bearer " + playerToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+
+        mockMvc.perform(put("/api/matches/" + matchId + "/score")
+                        .param("newScore", "6-4,7-6(3)")
+                        .param("currentUserId", adminId.toString())
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/tournaments/" + tournamentId + "/standings")
+                        .header("Authorization", "Bearer " + playerToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].rank").value(1))
+                .andExpect(jsonPath("$[0].playerId").value(playerId.intValue()))
+                .andExpect(jsonPath("$[0].matchesWon").value(1))
+                .andExpect(jsonPath("$[0].setsWon").value(2))
+                .andExpect(jsonPath("$[0].gamesWon").value(13))
+                .andExpect(jsonPath("$[0].gamesLost").value(10))
+                .andExpect(jsonPath("$[0].tiebreaksWon").value(1))
+                .andExpect(jsonPath("$[1].playerId").value(opponentId.intValue()))
+                .andExpect(jsonPath("$[1].matchesLost").value(1))
+                .andExpect(jsonPath("$[1].gamesWon").value(10))
+                .andExpect(jsonPath("$[1].tiebreaksLost").value(1));
+
+        // a corrected score replaces the match's contribution instead of adding to it
+        mockMvc.perform(put("/api/matches/" + matchId + "/score")
+                        .param("newScore", "6-4,3-6,7-5")
+                        .param("currentUserId", adminId.toString())
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/tournaments/" + tournamentId + "/standings")
+                        .header("Authorization", "Bearer " + playerToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].playerId").value(playerId.intValue()))
+                .andExpect(jsonPath("$[0].matchesPlayed").value(1))
+                .andExpect(jsonPath("$[0].matchesWon").value(1))
+                .andExpect(jsonPath("$[0].setsWon").value(2))
+                .andExpect(jsonPath("$[0].setsLost").value(1))
+                .andExpect(jsonPath("$[0].gamesWon").value(16))
+                .andExpect(jsonPath("$[0].gamesLost").value(15))
+                .andExpect(jsonPath("$[0].tiebreaksWon").value(0))
+                .andExpect(jsonPath("$[1].setsWon").value(1))
+                .andExpect(jsonPath("$[1].tiebreaksLost").value(0));
+
+        mockMvc.perform(get("/api/users/" + opponentId + "/standings")
+                        .header("Authorization", "Bearer " + playerToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].tournamentId").value(tournamentId.intValue()))
+                .andExpect(jsonPath("$[0].matchesPlayed").value(1))
+                .andExpect(jsonPath("$[0].matchesWon").value(0))
+                .andExpect(jsonPath("$[0].gamesWon").value(15));
+
+        mockMvc.perform(get("/api/tournaments/999999/standings")
+                        .header("Authorization", "Bearer " + playerToken))
+                .andExpect(status().isNotFound());
+    }
+
     // --- RefereeController.filterPlayers security checks ---
 
     @Test
@@ -1012,6 +2230,40 @@ public class TennisTournamentApplicationTests {
                 .andExpect(status().isForbidden());
     }
 
+    private void registerAndApprove(Long tournamentId, Long userId, String token) throws Exception {
+        MvcResult req = mockMvc.perform(post("/api/tournaments/" + tournamentId + "/register")
+                        .param("playerId", userId.toString())
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn();
+        Integer reqId = (Integer) objectMapper.readValue(req.getResponse().getContentAsString(),
+                new TypeReference<Map<String,Object>>(){}).get("id");
+        mockMvc.perform(post("/api/admin/registration-requests/" + reqId + "/approve")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk());
+    }
+
+    private RequestBuilder matchRequest(Long tournamentId, Long p1, Long p2,
+                                        Long referee, Long courtId,
+                                        LocalDateTime start, LocalDateTime end) {
+        var request = post("/api/matches/create")
+                .param("currentUserId", adminId.toString())
+                .param("tournamentId", tournamentId.toString())
+                .param("player1Id", p1.toString())
+                .param("player2Id", p2.toString())
+                .param("refereeId", referee.toString())
+                .param("startTime", start.toString())
+                .param("endTime", end.toString())
+                .header("Authorization", "Bearer " + adminToken);
+        return courtId != null ? request.param("courtId", courtId.toString()) : request;
+    }
+
+    private Long createdId(RequestBuilder request) throws Exception {
+        MvcResult res = mockMvc.perform(request).andExpect(status().isOk()).andReturn();
+        return Long.valueOf((Integer) objectMapper.readValue(res.getResponse().getContentAsString(),
+                new TypeReference<Map<String, Object>>() {}).get("id"));
+    }
+
     private Long createOneMatchAndReturnId() throws Exception {
         Tournament tour = TournamentBuilder.builder()
                 .name("MatchCup")